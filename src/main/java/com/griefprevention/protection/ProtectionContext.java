@@ -0,0 +1,187 @@
+package com.griefprevention.protection;
+
+import me.ryanhamshire.GriefPrevention.Claim;
+import me.ryanhamshire.GriefPrevention.ClaimPermission;
+import me.ryanhamshire.GriefPrevention.GriefPrevention;
+import me.ryanhamshire.GriefPrevention.PlayerData;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Lookups and permission decisions shared by all the checks made while handling a single {@link Event}.
+ *
+ * <p>Claims, {@link PlayerData}, and permission decisions are resolved the first time they are requested and
+ * remembered afterwards, so each location is only looked up once per event. A context must not outlive the event it
+ * was created for; anything that changes claims, such as creating or resizing one, makes its lookups stale.</p>
+ */
+public final class ProtectionContext
+{
+
+    // Stand-in for a decision that allowed the action, so null can mean "not yet decided".
+    private static final Supplier<String> ALLOWED = () -> null;
+
+    private final @Nullable Event trigger;
+    private @Nullable Map<UUID, PlayerData> playerData;
+    private @Nullable Map<BlockKey, Claim> claims;
+    private @Nullable Map<LocationDecision, Supplier<String>> locationDecisions;
+    private @Nullable Map<ClaimDecision, Supplier<String>> claimDecisions;
+
+    /**
+     * Construct a new {@code ProtectionContext}.
+     *
+     * @param trigger the {@link Event} being handled, if any
+     */
+    public ProtectionContext(@Nullable Event trigger)
+    {
+        this.trigger = trigger;
+    }
+
+    /**
+     * @return the {@link Event} being handled, if any
+     */
+    public @Nullable Event getTrigger()
+    {
+        return trigger;
+    }
+
+    /**
+     * Get the {@link PlayerData} for a {@link Player}.
+     *
+     * @param player the player
+     * @return the player's data
+     */
+    public @NotNull PlayerData getPlayerData(@NotNull Player player)
+    {
+        if (playerData == null) playerData = new HashMap<>(4);
+        return playerData.computeIfAbsent(
+                player.getUniqueId(),
+                uuid -> GriefPrevention.instance.dataStore.getPlayerData(uuid));
+    }
+
+    /**
+     * Get the {@link Claim} at a {@link Location}. Height is not ignored.
+     *
+     * @param location the location
+     * @param cachedClaim a claim likely to contain the location, used to speed up the first lookup, if any
+     * @return the claim, or {@code null} if the location is not claimed
+     */
+    public @Nullable Claim getClaimAt(@NotNull Location location, @Nullable Claim cachedClaim)
+    {
+        if (claims == null) claims = new HashMap<>(4);
+        BlockKey key = BlockKey.of(location);
+        // Unclaimed locations are remembered too, so a null result is not a miss.
+        if (claims.containsKey(key)) return claims.get(key);
+
+        Claim claim = GriefPrevention.instance.dataStore.getClaimAt(location, false, cachedClaim);
+        claims.put(key, claim);
+        return claim;
+    }
+
+    /**
+     * Get the {@link Claim} an {@link Entity} is in. Height is not ignored.
+     *
+     * <p>Entities are not looked up by location, as the data store already remembers the claim of each entity until it
+     * moves.</p>
+     *
+     * @param entity the entity
+     * @param cachedClaim a claim likely to contain the entity, used to speed up the lookup, if any
+     * @return the claim, or {@code null} if the entity is not in a claim
+     * @see me.ryanhamshire.GriefPrevention.DataStore#getClaimAt(Entity, Claim)
+     */
+    public @Nullable Claim getClaimAt(@NotNull Entity entity, @Nullable Claim cachedClaim)
+    {
+        return GriefPrevention.instance.dataStore.getClaimAt(entity, cachedClaim);
+    }
+
+    /**
+     * Check the {@link ClaimPermission} state for a {@link Player} at a particular {@link Location}.
+     *
+     * @param player the person performing the action
+     * @param location the affected {@link Location}
+     * @param permission the required permission
+     * @return the denial message supplier, or {@code null} if the action is not denied
+     * @see ProtectionHelper#checkPermission(Player, Location, ClaimPermission, Event)
+     */
+    public @Nullable Supplier<String> checkPermission(
+            @NotNull Player player,
+            @NotNull Location location,
+            @NotNull ClaimPermission permission)
+    {
+        return ProtectionHelper.checkPermission(this, player, location, permission);
+    }
+
+    /**
+     * Check the {@link ClaimPermission} state for a {@link Player} in a particular {@link Claim}.
+     *
+     * @param player the person performing the action
+     * @param claim the claim
+     * @param permission the required permission
+     * @return the denial message supplier, or {@code null} if the action is not denied
+     * @see Claim#checkPermission(Player, ClaimPermission, Event)
+     */
+    public @Nullable Supplier<String> checkPermission(
+            @NotNull Player player,
+            @NotNull Claim claim,
+            @NotNull ClaimPermission permission)
+    {
+        if (claimDecisions == null) claimDecisions = new HashMap<>(4);
+        ClaimDecision key = new ClaimDecision(player.getUniqueId(), claim, permission);
+        Supplier<String> decision = claimDecisions.get(key);
+        if (decision == null)
+        {
+            decision = claim.checkPermission(player, permission, trigger);
+            claimDecisions.put(key, decision == null ? ALLOWED : decision);
+        }
+        return decision == ALLOWED ? null : decision;
+    }
+
+    @Nullable Supplier<String> getDecision(
+            @NotNull Player player,
+            @NotNull Location location,
+            @NotNull ClaimPermission permission)
+    {
+        if (locationDecisions == null) return null;
+        return locationDecisions.get(new LocationDecision(player.getUniqueId(), BlockKey.of(location), permission));
+    }
+
+    @Nullable Supplier<String> putDecision(
+            @NotNull Player player,
+            @NotNull Location location,
+            @NotNull ClaimPermission permission,
+            @Nullable Supplier<String> decision)
+    {
+        if (locationDecisions == null) locationDecisions = new HashMap<>(4);
+        locationDecisions.put(
+                new LocationDecision(player.getUniqueId(), BlockKey.of(location), permission),
+                decision == null ? ALLOWED : decision);
+        return decision;
+    }
+
+    static boolean isAllowed(@Nullable Supplier<String> decision)
+    {
+        return decision == ALLOWED;
+    }
+
+    private record BlockKey(@Nullable World world, int x, int y, int z)
+    {
+        static @NotNull BlockKey of(@NotNull Location location)
+        {
+            return new BlockKey(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+        }
+    }
+
+    private record LocationDecision(@NotNull UUID player, @NotNull BlockKey block, @NotNull ClaimPermission permission) {}
+
+    private record ClaimDecision(@NotNull UUID player, @NotNull Claim claim, @NotNull ClaimPermission permission) {}
+
+}
@@ -45,16 +45,50 @@ public final class ProtectionHelper
             @NotNull Location location,
             @NotNull ClaimPermission permission,
             @Nullable Event trigger)
+    {
+        return checkPermission(new ProtectionContext(trigger), player, location, permission);
+    }
+
+    /**
+     * Check the {@link ClaimPermission} state for a {@link Player} at a particular {@link Location}, reusing the
+     * lookups and decisions already made for the same event.
+     *
+     * <p>This respects ignoring claims, wilderness rules, etc.</p>
+     *
+     * @param context the {@link ProtectionContext} for the event being handled
+     * @param player the person performing the action
+     * @param location the affected {@link Location}
+     * @param permission the required permission
+     * @return the denial message supplier, or {@code null} if the action is not denied
+     */
+    public static @Nullable Supplier<String> checkPermission(
+            @NotNull ProtectionContext context,
+            @NotNull Player player,
+            @NotNull Location location,
+            @NotNull ClaimPermission permission)
+    {
+        Supplier<String> decision = context.getDecision(player, location, permission);
+        if (decision != null) return ProtectionContext.isAllowed(decision) ? null : decision;
+
+        return context.putDecision(player, location, permission, resolvePermission(context, player, location, permission));
+    }
+
+    private static @Nullable Supplier<String> resolvePermission(
+            @NotNull ProtectionContext context,
+            @NotNull Player player,
+            @NotNull Location location,
+            @NotNull ClaimPermission permission)
     {
         World world = location.getWorld();
         if (world == null || !GriefPrevention.instance.claimsEnabledForWorld(world)) return null;
 
-        PlayerData playerData = GriefPrevention.instance.dataStore.getPlayerData(player.getUniqueId());
+        PlayerData playerData = context.getPlayerData(player);
 
         // Administrators ignoring claims always have permission.
         if (playerData.ignoreClaims) return null;
 
-        Claim claim = GriefPrevention.instance.dataStore.getClaimAt(location, false, playerData.lastClaim);
+        Claim claim = context.getClaimAt(location, playerData.lastClaim);
+        Event trigger = context.getTrigger();
 
 
         // If there is no claim here, use wilderness rules.
@@ -89,7 +123,7 @@ public final class ProtectionHelper
         playerData.lastClaim = claim;
 
         // Apply claim rules.
-        Supplier<String> cancel = claim.checkPermission(player, permission, trigger);
+        Supplier<String> cancel = context.checkPermission(player, claim, permission);
 
         // Apply additional specific rules.
         if (cancel != null && trigger instanceof BlockBreakEvent breakEvent)
@@ -133,6 +133,75 @@ public record IntVector(int x, int y, int z)
         return world.isChunkLoaded(x() >> 4, z() >> 4);
     }
 
+    /**
+     * Pack the {@code IntVector's} coordinates into a single {@code long}.
+     *
+     * @return the packed coordinates
+     * @see #pack(int, int, int)
+     */
+    public long pack()
+    {
+        return pack(x(), y(), z());
+    }
 
+    /**
+     * Pack block coordinates into a single {@code long}.
+     *
+     * <p>X and Z are stored in 26 bits each and Y in 12 bits, which covers every position inside the world border.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     * @param z the Z coordinate
+     * @return the packed coordinates
+     */
+    public static long pack(int x, int y, int z)
+    {
+        return ((long) x & 0x3FFFFFFL) << 38 | ((long) z & 0x3FFFFFFL) << 12 | (long) y & 0xFFFL;
+    }
+
+    /**
+     * Create a new {@code IntVector} from coordinates packed with {@link #pack(int, int, int)}.
+     *
+     * @param packed the packed coordinates
+     * @return the {@code IntVector} created
+     */
+    @Contract("_ -> new")
+    public static @NotNull IntVector unpack(long packed)
+    {
+        return new IntVector(unpackX(packed), unpackY(packed), unpackZ(packed));
+    }
+
+    /**
+     * Get the X coordinate from coordinates packed with {@link #pack(int, int, int)}.
+     *
+     * @param packed the packed coordinates
+     * @return the X coordinate
+     */
+    public static int unpackX(long packed)
+    {
+        return (int) (packed >> 38);
+    }
+
+    /**
+     * Get the Y coordinate from coordinates packed with {@link #pack(int, int, int)}.
+     *
+     * @param packed the packed coordinates
+     * @return the Y coordinate
+     */
+    public static int unpackY(long packed)
+    {
+        return (int) (packed << 52 >> 52);
+    }
+
+    /**
+     * Get the Z coordinate from coordinates packed with {@link #pack(int, int, int)}.
+     *
+     * @param packed the packed coordinates
+     * @return the Z coordinate
+     */
+    public static int unpackZ(long packed)
+    {
+        return (int) (packed << 26 >> 38);
+    }
 
 }
@@ -0,0 +1,285 @@
+package com.griefprevention.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash map with primitive {@code long} keys, so lookups don't box keys.
+ *
+ * <p>Entries are stored with open addressing in flat arrays. Null values are not permitted. The map is not
+ * thread-safe, but a map that is no longer modified may be read from any number of threads.
+ *
+ * @param <V> the type of values
+ */
+public final class LongObjectMap<V>
+{
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    /**
+     * Construct a new empty {@code LongObjectMap}.
+     */
+    public LongObjectMap()
+    {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Construct a new empty {@code LongObjectMap} with room for a number of entries.
+     *
+     * @param expectedSize the number of entries expected
+     */
+    public LongObjectMap(int expectedSize)
+    {
+        int capacity = tableSizeFor(expectedSize);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return true if there are no entries
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Get the value for a key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V get(long key)
+    {
+        long[] keys = this.keys;
+        Object[] values = this.values;
+        int mask = values.length - 1;
+        for (int i = index(key, mask); ; i = (i + 1) & mask)
+        {
+            Object value = values[i];
+            if (value == null) return null;
+            if (keys[i] == key) return (V) value;
+        }
+    }
+
+    /**
+     * Check if there is a value for a key.
+     *
+     * @param key the key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(long key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * Set the value for a key.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the previous value, or {@code null} if there was none
+     */
+    public @Nullable V put(long key, @NotNull V value)
+    {
+        return put(key, value, true);
+    }
+
+    /**
+     * Set the value for a key if it does not already have one.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the existing value, or {@code null} if the value was set
+     */
+    public @Nullable V putIfAbsent(long key, @NotNull V value)
+    {
+        return put(key, value, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private @Nullable V put(long key, @NotNull V value, boolean replace)
+    {
+        int mask = values.length - 1;
+        int i = index(key, mask);
+        for (; values[i] != null; i = (i + 1) & mask)
+        {
+            if (keys[i] == key)
+            {
+                V previous = (V) values[i];
+                if (replace) values[i] = value;
+                return previous;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        // Keep the table at most half full so probe sequences stay short.
+        if (++size > values.length / 2) resize(values.length * 2);
+        return null;
+    }
+
+    /**
+     * Remove the value for a key.
+     *
+     * @param key the key
+     * @return the value removed, or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable V remove(long key)
+    {
+        int mask = values.length - 1;
+        int i = index(key, mask);
+        for (; values[i] != null; i = (i + 1) & mask)
+        {
+            if (keys[i] != key) continue;
+
+            V removed = (V) values[i];
+            // Shift later entries of the probe sequence back so lookups don't stop at the gap.
+            int gap = i;
+            for (int j = (i + 1) & mask; values[j] != null; j = (j + 1) & mask)
+            {
+                int home = index(keys[j], mask);
+                if (((j - home) & mask) >= ((j - gap) & mask))
+                {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = 0;
+            values[gap] = null;
+            size--;
+            return removed;
+        }
+        return null;
+    }
+
+    /**
+     * Remove all entries.
+     */
+    public void clear()
+    {
+        if (size == 0) return;
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Get a copy of the keys in the map.
+     *
+     * @return the keys
+     */
+    public long @NotNull [] keys()
+    {
+        long[] result = new long[size];
+        int index = 0;
+        for (int i = 0; i < values.length; i++)
+        {
+            if (values[i] != null) result[index++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Get a view of the values in the map. The view does not support removal.
+     *
+     * @return the values
+     */
+    public @NotNull Collection<V> values()
+    {
+        return new AbstractCollection<>()
+        {
+            @Override
+            public @NotNull Iterator<V> iterator()
+            {
+                return new Iterator<>()
+                {
+                    private int next = advance(0);
+
+                    private int advance(int from)
+                    {
+                        while (from < values.length && values[from] == null) from++;
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public V next()
+                    {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        V value = (V) values[next];
+                        next = advance(next + 1);
+                        return value;
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return size;
+            }
+        };
+    }
+
+    private void resize(int capacity)
+    {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++)
+        {
+            if (oldValues[i] == null) continue;
+
+            int j = index(oldKeys[i], mask);
+            while (values[j] != null) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+
+    private static int index(long key, int mask)
+    {
+        // Spread the bits so packed coordinates and sequential IDs don't cluster.
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int expectedSize)
+    {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2) - 1) << 1;
+        return Math.max(MIN_CAPACITY, capacity);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.griefprevention.util.command;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * A set of lowercase commands, stored as a character trie so that a command can be checked against every entry in a
+ * single pass over its characters, without making substrings.
+ */
+final class CommandTrie
+{
+
+    private final Node root = new Node();
+
+    /**
+     * Add a command. The command must already be lowercase.
+     *
+     * @param command the command
+     */
+    void add(@NotNull String command)
+    {
+        Node node = root;
+        for (int i = 0; i < command.length(); ++i)
+        {
+            node = node.getOrAddChild(command.charAt(i));
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * Check if a command or any of its leading space-separated sections is present, ignoring case.
+     *
+     * @param command the command as typed
+     * @param maxSpaces the highest number of spaces in any entry
+     * @return true if the command, or the command cut off before one of its spaces, is present
+     */
+    boolean matches(@NotNull CharSequence command, int maxSpaces)
+    {
+        Node node = root;
+        int spaces = 0;
+        for (int i = 0; i < command.length(); ++i)
+        {
+            char character = Character.toLowerCase(command.charAt(i));
+            if (character == ' ')
+            {
+                // Everything up to this space is a complete command with its leading arguments.
+                if (node.terminal) return true;
+                // No entry has any more arguments.
+                if (++spaces > maxSpaces) return false;
+            }
+
+            node = node.getChild(character);
+            if (node == null) return false;
+        }
+
+        return node.terminal;
+    }
+
+    private static final class Node
+    {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // Commands rarely branch much, so children are found by a linear scan of parallel arrays.
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private boolean terminal = false;
+
+        private Node getChild(char key)
+        {
+            char[] keys = this.keys;
+            for (int i = 0; i < keys.length; ++i)
+            {
+                if (keys[i] == key) return children[i];
+            }
+            return null;
+        }
+
+        private @NotNull Node getOrAddChild(char key)
+        {
+            Node child = getChild(key);
+            if (child != null) return child;
+
+            child = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            children[children.length - 1] = child;
+            return child;
+        }
+
+    }
+
+}
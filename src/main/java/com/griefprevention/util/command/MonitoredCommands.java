@@ -15,7 +15,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,7 +51,7 @@ public class MonitoredCommands
         }
     }
 
-    private final Set<String> monitoredCommands = new HashSet<>();
+    private final CommandTrie monitoredCommands = new CommandTrie();
     private int maxSpaces = -1;
 
     public MonitoredCommands(@NotNull Collection<String> commands)
@@ -65,13 +64,21 @@ public class MonitoredCommands
 
     public boolean isMonitoredCommand(@NotNull MonitorableCommand command)
     {
-        int max = Math.min(maxSpaces, command.getArgumentCount());
-        for (int spaceCount = 0; spaceCount <= max; ++spaceCount)
-        {
-            if (monitoredCommands.contains(command.getCommand(spaceCount))) return true;
-        }
+        return isMonitoredCommand(command.getCommand());
+    }
 
-        return false;
+    /**
+     * Check if a command as typed is monitored, either in full or up to one of its arguments.
+     *
+     * <p>The command is checked in a single pass without being split or lowercased first, so this is preferred over
+     * creating a {@link MonitorableCommand} when the arguments are not otherwise needed.</p>
+     *
+     * @param command the command, including the leading slash
+     * @return true if the command is monitored
+     */
+    public boolean isMonitoredCommand(@NotNull String command)
+    {
+        return monitoredCommands.matches(command, maxSpaces);
     }
 
     private void addMonitored(@NotNull String command)
@@ -1,17 +1,25 @@
 package com.griefprevention.visualization;
 
 import com.griefprevention.util.IntVector;
+import com.griefprevention.util.LongObjectMap;
 import me.ryanhamshire.GriefPrevention.Claim;
 import me.ryanhamshire.GriefPrevention.PlayerData;
 import me.ryanhamshire.GriefPrevention.util.BoundingBox;
+import org.bukkit.HeightMap;
 import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 public abstract class BlockBoundaryVisualization extends BoundaryVisualization
@@ -24,6 +32,12 @@ public abstract class BlockBoundaryVisualization extends BoundaryVisualization
     protected final int worldMaxHeight = world.getMaxHeight();
     protected final int worldMinHeight = world.getMinHeight();
 
+    // Blocks and surface heights read while finding floors, so neighbouring elements don't fetch them again.
+    // Surface heights are stored by column of the display zone, which is only allocated once a height is needed.
+    private static final int UNKNOWN_SURFACE = Integer.MIN_VALUE;
+    private final LongObjectMap<BlockData> blockDataCache = new LongObjectMap<>(256);
+    private int @Nullable [] surfaceCache;
+
     /**
      * Construct a new {@code BlockBoundaryVisualization} with a step size of {@code 10} and a display radius of
      * {@code 75}.
@@ -63,7 +77,100 @@ public abstract class BlockBoundaryVisualization extends BoundaryVisualization
     @Override
     protected void apply(@NotNull Player player, @NotNull PlayerData playerData) {
         super.apply(player, playerData);
-        elements.forEach(element -> element.draw(player, world));
+        clearWorldCache();
+        drawElements(player, elements);
+    }
+
+    @Override
+    protected void applyOver(
+            @NotNull Player player,
+            @NotNull PlayerData playerData,
+            @NotNull BoundaryVisualization previous)
+    {
+        // Elements can only be compared with those of the same kind of visualization.
+        if (previous.getClass() != getClass() || !world.equals(previous.world))
+        {
+            super.applyOver(player, playerData, previous);
+            return;
+        }
+
+        // Gather elements without displaying them.
+        for (Boundary boundary : boundaries)
+            draw(player, boundary);
+        clearWorldCache();
+
+        update(player, (BlockBoundaryVisualization) previous);
+
+        // The previous visualization no longer holds any elements, so replacing it does not revert anything.
+        playerData.setVisibleBoundaries(this);
+        scheduleRevert(player, playerData);
+    }
+
+    /**
+     * Display the visualization's gathered elements to a {@link Player} who is being shown a previous visualization of
+     * the same type. Elements at the same coordinate in both visualizations are left as they are, elements only in the
+     * previous visualization are erased, and the rest are drawn.
+     *
+     * <p>Once complete, the previous visualization must no longer hold any elements that are displayed.</p>
+     *
+     * @param player the visualization target
+     * @param previous the visualization currently shown to the target
+     */
+    protected void update(@NotNull Player player, @NotNull BlockBoundaryVisualization previous)
+    {
+        // The last element at a coordinate is the one that ends up displayed.
+        Map<IntVector, BlockElement> shown = new HashMap<>();
+        for (BlockElement element : previous.elements)
+            shown.put(element.getCoordinate(), element);
+        Map<IntVector, BlockElement> wanted = new LinkedHashMap<>();
+        for (BlockElement element : elements)
+            wanted.put(element.getCoordinate(), element);
+
+        List<BlockElement> removed = new ArrayList<>();
+        List<BlockElement> added = new ArrayList<>();
+        for (Map.Entry<IntVector, BlockElement> entry : wanted.entrySet())
+        {
+            BlockElement old = shown.remove(entry.getKey());
+            if (old != null && old.equals(entry.getValue()))
+            {
+                // Keep the displayed element in case it holds state needed to erase it.
+                entry.setValue(old);
+                continue;
+            }
+
+            if (old != null) removed.add(old);
+            added.add(entry.getValue());
+        }
+        removed.addAll(shown.values());
+
+        eraseElements(player, removed);
+        drawElements(player, added);
+
+        elements.clear();
+        elements.addAll(wanted.values());
+        previous.elements.clear();
+    }
+
+    /**
+     * Display elements for a {@link Player}.
+     *
+     * @param player the visualization target
+     * @param toDraw the elements to draw
+     */
+    protected void drawElements(@NotNull Player player, @NotNull Collection<BlockElement> toDraw)
+    {
+        toDraw.forEach(element -> element.draw(player, world));
+    }
+
+    /**
+     * Stop the display of elements for a {@link Player}.
+     *
+     * @param player the visualization target
+     * @param toErase the elements to erase
+     */
+    protected void eraseElements(@NotNull Player player, @NotNull Collection<BlockElement> toErase)
+    {
+        toErase.forEach(element -> element.erase(player, world));
     }
 
     @Override
@@ -293,6 +400,76 @@ public abstract class BlockBoundaryVisualization extends BoundaryVisualization
         return true;
     }
 
+    /**
+     * Get the {@link BlockData} at a location in the visualization's world.
+     * The result is cached until the visualization's elements have been gathered, so floor checks can look at the same
+     * blocks repeatedly without fetching them from the world again.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the block data
+     */
+    public @NotNull BlockData getCachedBlockData(int x, int y, int z)
+    {
+        long key = IntVector.pack(x, y, z);
+        BlockData blockData = blockDataCache.get(key);
+        if (blockData == null)
+        {
+            blockData = world.getBlockAt(x, y, z).getBlockData();
+            blockDataCache.put(key, blockData);
+        }
+        return blockData;
+    }
+
+    /**
+     * Get the Y coordinate of the highest non-air block in a column of the visualization's world. Everything above it
+     * is air, so floor checks can skip it without fetching any blocks.
+     * The result is cached until the visualization's elements have been gathered.
+     *
+     * @param x the x coordinate
+     * @param z the z coordinate
+     * @return the Y coordinate of the surface
+     */
+    public int getSurfaceY(int x, int z)
+    {
+        int column = getDisplayZoneColumn(x, z);
+        if (column < 0) return world.getHighestBlockYAt(x, z, HeightMap.WORLD_SURFACE);
+
+        if (surfaceCache == null)
+        {
+            surfaceCache = new int[displayZoneArea.getLength() * displayZoneArea.getWidth()];
+            Arrays.fill(surfaceCache, UNKNOWN_SURFACE);
+        }
+
+        int surfaceY = surfaceCache[column];
+        if (surfaceY == UNKNOWN_SURFACE)
+        {
+            surfaceY = world.getHighestBlockYAt(x, z, HeightMap.WORLD_SURFACE);
+            surfaceCache[column] = surfaceY;
+        }
+        return surfaceY;
+    }
+
+    // Index of a column in the display zone, or -1 if it is outside.
+    private int getDisplayZoneColumn(int x, int z)
+    {
+        int offsetX = x - displayZoneArea.getMinX();
+        int offsetZ = z - displayZoneArea.getMinZ();
+        int length = displayZoneArea.getLength();
+        if (offsetX < 0 || offsetX >= length || offsetZ < 0 || offsetZ >= displayZoneArea.getWidth()) return -1;
+        return offsetZ * length + offsetX;
+    }
+
+    /**
+     * Discard blocks cached while gathering elements.
+     */
+    protected void clearWorldCache()
+    {
+        blockDataCache.clear();
+        surfaceCache = null;
+    }
+
     /**
      * Add a display element if accessible.
      *
@@ -320,7 +497,7 @@ public abstract class BlockBoundaryVisualization extends BoundaryVisualization
         }
 
         // Elements do not track the boundary they're attached to - all elements are reverted individually instead.
-        this.elements.forEach(element -> element.erase(player, world));
+        eraseElements(player, this.elements);
     }
 
     @Override
@@ -77,6 +77,25 @@ public abstract class BoundaryVisualization
         scheduleRevert(player, playerData);
     }
 
+    /**
+     * Apply the {@code BoundaryVisualization} to a {@link Player} in place of the visualization they are being shown.
+     *
+     * <p>Implementations able to tell which parts of the previous visualization are unchanged may override this method
+     * to only send the difference. By default, the previous visualization is reverted and this one applied in full.</p>
+     *
+     * @param player the visualization target
+     * @param playerData the {@link PlayerData} of the visualization target
+     * @param previous the visualization currently shown to the target
+     */
+    protected void applyOver(
+            @NotNull Player player,
+            @NotNull PlayerData playerData,
+            @NotNull BoundaryVisualization previous)
+    {
+        playerData.setVisibleBoundaries(null);
+        apply(player, playerData);
+    }
+
     /**
      * Draw a {@link Boundary} in the visualization for a {@link Player}.
      *
@@ -287,21 +306,25 @@ public abstract class BoundaryVisualization
         BoundaryVisualization visualization = event.getProvider().create(player.getWorld(), event.getCenter(), event.getHeight());
         visualization.boundaries.addAll(boundaries);
 
-        // If they have a visualization active, clear it first.
-        playerData.setVisibleBoundaries(null);
-
         // If they are online and in the same world as the visualization, display the visualization next tick.
+        // Any active visualization stays up until then so that unchanged parts of it don't need to be sent again.
         if (visualization.canVisualize(player))
         {
             GriefPrevention.instance.getServer().getScheduler().scheduleSyncDelayedTask(
                     GriefPrevention.instance,
-                    new DelayedVisualizationTask(visualization, playerData, event),
+                    new DelayedVisualizationTask(visualization, currentVisualization, playerData, event),
                     1L);
         }
+        else
+        {
+            // If they have a visualization active, clear it.
+            playerData.setVisibleBoundaries(null);
+        }
     }
 
     private record DelayedVisualizationTask(
             @NotNull BoundaryVisualization visualization,
+            @Nullable BoundaryVisualization previous,
             @NotNull PlayerData playerData,
             @NotNull BoundaryVisualizationEvent event)
             implements Runnable
@@ -312,7 +335,15 @@ public abstract class BoundaryVisualization
         {
             try
             {
-                visualization.apply(event.getPlayer(), playerData);
+                // Only update in place if nothing else has been shown since this visualization was requested.
+                if (previous != null && playerData.getVisibleBoundaries() == previous)
+                {
+                    visualization.applyOver(event.getPlayer(), playerData, previous);
+                }
+                else
+                {
+                    visualization.apply(event.getPlayer(), playerData);
+                }
             }
             catch (Exception exception)
             {
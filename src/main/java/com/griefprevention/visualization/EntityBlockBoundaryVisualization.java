@@ -1,22 +1,30 @@
 package com.griefprevention.visualization;
 
 import com.griefprevention.util.IntVector;
+import com.griefprevention.util.LongObjectMap;
 import me.ryanhamshire.GriefPrevention.PlayerData;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 
 /**
  * @author <a href="https://github.com/TauCubed">TauCubed</a>
  */
 public abstract class EntityBlockBoundaryVisualization<T extends FakeEntityElement> extends BlockBoundaryVisualization {
 
-    protected HashMap<IntVector, T> entityElements = new HashMap<>(32);
+    // elements by packed coordinate, see IntVector#pack
+    protected LongObjectMap<T> entityElements = new LongObjectMap<>(32);
+    // drawn elements by entity ID, replaced rather than modified so the packet thread can read it at any time
+    private volatile LongObjectMap<T> elementsByEntityId = new LongObjectMap<>();
+    // the elements of the visualization being replaced, which new elements may be recycled from
+    private LongObjectMap<T> recyclable = null;
 
     public EntityBlockBoundaryVisualization(@NotNull World world, @NotNull IntVector visualizeFrom, int height) {
         this(world, visualizeFrom, height, 10, 128);
@@ -30,19 +38,103 @@ public abstract class EntityBlockBoundaryVisualization<T extends FakeEntityEleme
     protected void apply(@NotNull Player player, @NotNull PlayerData playerData) {
         super.apply(player, playerData);
         // Apply all visualization elements.
-        for (T element : entityElements.values()) element.draw(player, world);
+        drawEntities(player, entityElements.values());
+        indexEntityIds();
     }
 
-    public T elementByEID(int entityId) {
+    @Override
+    protected void applyOver(@NotNull Player player, @NotNull PlayerData playerData, @NotNull BoundaryVisualization previous) {
+        // let elements be recycled from the visualization being replaced while gathering
+        if (previous.getClass() == getClass() && world.equals(previous.world)) {
+            @SuppressWarnings("unchecked")
+            EntityBlockBoundaryVisualization<T> old = (EntityBlockBoundaryVisualization<T>) previous;
+            recyclable = old.entityElements;
+        }
+
+        try {
+            super.applyOver(player, playerData, previous);
+        } finally {
+            recyclable = null;
+        }
+    }
+
+    /**
+     * Gets an element of the visualization being replaced so that it can be used again instead of creating a new one.
+     * Only available while gathering elements.
+     * @param key the packed coordinate of the element
+     * @return the element at the coordinate in the visualization being replaced, if any
+     */
+    protected @Nullable T recycle(long key) {
+        return recyclable == null ? null : recyclable.get(key);
+    }
+
+    /**
+     * Draws entity elements for a player.
+     * Implementations may override this to send all the elements together.
+     * @param player the visualization target
+     * @param toDraw the elements to draw
+     */
+    protected void drawEntities(@NotNull Player player, @NotNull Collection<T> toDraw) {
+        for (T element : toDraw) element.draw(player, world);
+    }
+
+    @Override
+    protected void update(@NotNull Player player, @NotNull BlockBoundaryVisualization previous) {
+        super.update(player, previous);
+
+        // applyOver only updates from visualizations of the same class
+        @SuppressWarnings("unchecked")
+        EntityBlockBoundaryVisualization<T> old = (EntityBlockBoundaryVisualization<T>) previous;
+
+        List<T> added = new ArrayList<>();
+        for (long key : entityElements.keys()) {
+            T element = entityElements.get(key);
+            T shown = old.entityElements.get(key);
+            if (shown == element) {
+                // recycled while gathering
+                old.entityElements.remove(key);
+                if (!shown.drawn()) added.add(shown);
+            } else if (shown != null && shown.drawn() && shown.looksLike(element)) {
+                // keep the entity the player can already see
+                entityElements.put(key, shown);
+                old.entityElements.remove(key);
+            } else {
+                added.add(element);
+            }
+        }
+
+        // anything left in the previous visualization is no longer wanted
+        old.revert(player);
+        old.entityElements.clear();
+        old.elementsByEntityId = new LongObjectMap<>();
+
+        drawEntities(player, added);
+        indexEntityIds();
+    }
+
+    // rebuilds the entity ID lookup once elements have been drawn
+    private void indexEntityIds() {
+        LongObjectMap<T> byEntityId = new LongObjectMap<>(entityElements.size());
         for (T element : entityElements.values()) {
-            if (element.entityId() == entityId) return element;
+            if (element.drawn()) byEntityId.put(element.entityId(), element);
         }
-        return null;
+        elementsByEntityId = byEntityId;
+    }
+
+    /**
+     * Finds a drawn element by the ID of its fake entity. Safe to call from any thread.
+     * @param entityId the entity ID
+     * @return the element, or null if none was drawn with that ID
+     */
+    public T elementByEID(int entityId) {
+        T element = elementsByEntityId.get(entityId);
+        // the element may have been erased and drawn again since
+        return element != null && element.entityId() == entityId ? element : null;
     }
 
     public T elementByLocation(Location where) {
         if (getWorld() != where.getWorld()) return null;
-        return entityElements.get(new IntVector(where));
+        return entityElements.get(IntVector.pack(where.getBlockX(), where.getBlockY(), where.getBlockZ()));
     }
 
     public World getWorld() {
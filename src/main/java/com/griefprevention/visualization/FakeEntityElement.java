@@ -27,13 +27,23 @@ public abstract class FakeEntityElement extends BlockElement {
 
     @Override
     public void draw(@NotNull Player player, @NotNull World world) {
-        if (drawn()) return;
+        if (prepareDraw(player, world)) draw();
+    }
+
+    /**
+     * Assigns the element its fake entity for a player without sending anything.
+     * @param player the player the element is drawn for
+     * @param world the world the element is drawn in
+     * @return false if the element is already drawn
+     */
+    protected boolean prepareDraw(@NotNull Player player, @NotNull World world) {
+        if (drawn()) return false;
         this.player = player;
         this.world = world;
         this.entityId = ProtocolUtil.nextEntityId();
         this.entityUid = UUIDUtil.fastRandomUUID(ThreadLocalRandom.current());
         this.drawn = true;
-        draw();
+        return true;
     }
 
     protected abstract void draw();
@@ -53,6 +63,17 @@ public abstract class FakeEntityElement extends BlockElement {
         drawn = false;
     }
 
+    /**
+     * Check if another element would display the same as this one, so that whichever is drawn can stand in for the
+     * other.
+     *
+     * @param other the other element
+     * @return true if the elements look the same
+     */
+    public boolean looksLike(@NotNull FakeEntityElement other) {
+        return getClass() == other.getClass() && getCoordinate().equals(other.getCoordinate());
+    }
+
     public boolean drawn() {
         return drawn;
     }
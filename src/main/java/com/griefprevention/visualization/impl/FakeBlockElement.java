@@ -3,9 +3,11 @@ package com.griefprevention.visualization.impl;
 import com.griefprevention.visualization.BlockElement;
 import com.griefprevention.util.IntVector;
 import org.bukkit.World;
+import org.bukkit.block.BlockState;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A {@link BlockElement} that displays itself as a clientside block.
@@ -41,6 +43,24 @@ final class FakeBlockElement extends BlockElement
         player.sendBlockChange(getCoordinate().toLocation(world), realBlock);
     }
 
+    /**
+     * Create a {@link BlockState} for sending the element as part of a multi-block change.
+     *
+     * @param world the {@code World} the element is displayed in
+     * @param visualized whether to use the visualized block rather than the real block
+     * @return the {@code BlockState}, or {@code null} if the element's chunk is not loaded
+     */
+    @Nullable BlockState toBlockState(@NotNull World world, boolean visualized)
+    {
+        // Elements in unloaded chunks are left to draw and erase themselves, as drawing skips them.
+        if (!getCoordinate().isChunkLoaded(world)) return null;
+
+        // Only the block data is sent, so build the state from it rather than snapshotting the world's block,
+        // which would copy the contents of containers and other tile entities.
+        BlockData blockData = visualized ? visualizedBlock : realBlock;
+        return blockData.createBlockState().copy(getCoordinate().toLocation(world));
+    }
+
     @Override
     public boolean equals(Object other)
     {
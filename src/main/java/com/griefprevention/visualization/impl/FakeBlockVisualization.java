@@ -2,16 +2,22 @@ package com.griefprevention.visualization.impl;
 
 import com.griefprevention.util.IntVector;
 import com.griefprevention.visualization.BlockBoundaryVisualization;
+import com.griefprevention.visualization.BlockElement;
 import com.griefprevention.visualization.Boundary;
 import com.griefprevention.visualization.BoundaryVisualization;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Tag;
 import org.bukkit.World;
-import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Lightable;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.function.Consumer;
 
 /**
@@ -21,6 +27,9 @@ import java.util.function.Consumer;
 public class FakeBlockVisualization extends BlockBoundaryVisualization
 {
 
+    // Servers that can send many block changes at once group them into a packet per chunk section.
+    private static final boolean MULTI_BLOCK_CHANGES = supportsMultiBlockChanges();
+
     protected final boolean waterTransparent;
 
     /**
@@ -77,21 +86,99 @@ public class FakeBlockVisualization extends BlockBoundaryVisualization
     {
         return vector -> {
             // Create an element using our fake data and the determined block's real data.
-            elements.add(new FakeBlockElement(vector, vector.toBlock(world).getBlockData(), fakeData));
+            elements.add(new FakeBlockElement(vector, getCachedBlockData(vector.x(), vector.y(), vector.z()), fakeData));
         };
     }
 
+    @Override
+    protected void drawElements(@NotNull Player player, @NotNull Collection<BlockElement> toDraw)
+    {
+        if (!MULTI_BLOCK_CHANGES || toDraw.size() < 2)
+        {
+            super.drawElements(player, toDraw);
+            return;
+        }
+
+        sendBlockChanges(player, toDraw, true);
+    }
+
+    @Override
+    protected void eraseElements(@NotNull Player player, @NotNull Collection<BlockElement> toErase)
+    {
+        if (!MULTI_BLOCK_CHANGES || toErase.size() < 2)
+        {
+            super.eraseElements(player, toErase);
+            return;
+        }
+
+        sendBlockChanges(player, toErase, false);
+    }
+
+    /**
+     * Send the blocks of many elements to a {@link Player} at once.
+     *
+     * @param player the visualization target
+     * @param changed the elements to send
+     * @param visualized whether to send the visualized blocks rather than the real blocks
+     */
+    private void sendBlockChanges(@NotNull Player player, @NotNull Collection<BlockElement> changed, boolean visualized)
+    {
+        List<BlockState> states = new ArrayList<>(changed.size());
+        List<BlockElement> unbatched = new ArrayList<>();
+        for (BlockElement element : changed)
+        {
+            BlockState state = element instanceof FakeBlockElement fakeBlock ? fakeBlock.toBlockState(world, visualized) : null;
+            if (state != null) states.add(state);
+            else unbatched.add(element);
+        }
+
+        if (!states.isEmpty()) player.sendBlockChanges(states);
+
+        // Elements that can't be batched fall back to sending themselves.
+        if (unbatched.isEmpty()) return;
+        if (visualized) super.drawElements(player, unbatched);
+        else super.eraseElements(player, unbatched);
+    }
+
+    private static boolean supportsMultiBlockChanges()
+    {
+        try
+        {
+            Player.class.getMethod("sendBlockChanges", Collection.class);
+            // Block states are built from block data, without reading the world.
+            BlockData.class.getMethod("createBlockState");
+            BlockState.class.getMethod("copy", Location.class);
+            return true;
+        }
+        catch (NoSuchMethodException e)
+        {
+            return false;
+        }
+    }
+
     @Override
     public boolean isValidFloor(World world, int originalY, int x, int y, int z) {
-        if (!isTransparent(world.getBlockAt(x, y, z))) {
-            return isTransparent(world.getBlockAt(x, y + 1, z)) || isTransparent(world.getBlockAt(x, y - 1, z));
+        // Other worlds can't use the visualization's cache.
+        if (world != this.world) {
+            if (!isTransparent(world.getBlockAt(x, y, z).getType())) {
+                return isTransparent(world.getBlockAt(x, y + 1, z).getType()) || isTransparent(world.getBlockAt(x, y - 1, z).getType());
+            }
+            return false;
+        }
+
+        if (!isTransparent(x, y, z)) {
+            return isTransparent(x, y + 1, z) || isTransparent(x, y - 1, z);
         }
         return false;
     }
 
-    private boolean isTransparent(Block block) {
-        Material blockMaterial = block.getType();
+    private boolean isTransparent(int x, int y, int z) {
+        // Everything above the surface is air.
+        if (y > getSurfaceY(x, z)) return true;
+        return isTransparent(getCachedBlockData(x, y, z).getMaterial());
+    }
 
+    private boolean isTransparent(Material blockMaterial) {
         // Custom per-material definitions.
         switch (blockMaterial)
         {
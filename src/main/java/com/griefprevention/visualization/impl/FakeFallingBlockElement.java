@@ -4,6 +4,7 @@ import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.ProtocolLibrary;
 import com.comphenix.protocol.events.PacketContainer;
 import com.griefprevention.util.IntVector;
+import com.griefprevention.visualization.FakeEntityElement;
 import me.ryanhamshire.GriefPrevention.util.DataWatchers;
 import me.ryanhamshire.GriefPrevention.util.ProtocolUtil;
 import org.bukkit.Location;
@@ -25,7 +26,7 @@ import java.util.*;
  * Used to spawn fake falling blocks that have the glowing effect and can be added to specified scoreboard teams
  * @author <a href="https://github.com/TauCubed">TauCubed</a>
  */
-public class FakeFallingBlockElement extends com.griefprevention.visualization.FakeEntityElement {
+public class FakeFallingBlockElement extends FakeEntityElement {
 
     private static final HashMap<BlockData, Boolean> INHERIT_BLOCK_CACHE = new HashMap<>(1024, 0.5F);
 
@@ -41,6 +42,18 @@ public class FakeFallingBlockElement extends com.griefprevention.visualization.F
 
     @Override
     protected void draw() {
+        List<PacketContainer> packets = new ArrayList<>(3);
+        stage(packets);
+        packets.add(teamPacket(3, teamName, List.of(entityUid.toString())));
+        ProtocolUtil.sendBundled(player, packets);
+    }
+
+    /**
+     * Adds the packets spawning this element to a list, sending any block change needed first.
+     * The element must already be prepared for drawing.
+     * @param packets the packets to send
+     */
+    private void stage(List<PacketContainer> packets) {
         IntVector pos = getCoordinate();
         BlockData fakeData = blockData;
 
@@ -74,15 +87,50 @@ public class FakeFallingBlockElement extends com.griefprevention.visualization.F
         entityMeta.getIntegers().write(0, entityId); // the target entityId
         entityMeta.getDataValueCollectionModifier().write(0, List.of(DataWatchers.NO_GRAVITY, DataWatchers.GLOWING)); // make it have no gravity and glow
 
-        // add the blocks to the scoreboard team to give color to the glow effect
-        PacketContainer addToTeam = new PacketContainer(PacketType.Play.Server.SCOREBOARD_TEAM);
-        addToTeam.getIntegers().write(0, 3); // add to team action
-        addToTeam.getStrings().write(0, teamName); // team name
-        addToTeam.getSpecificModifier(Collection.class).write(0, List.of(entityUid.toString())); // UUIDs of team members to add
+        packets.add(addEntity);
+        packets.add(entityMeta);
+    }
+
+    /**
+     * Draws many falling block elements for a player at once.<br>
+     * The elements are spawned in one bundle, with a single team join per glow color.
+     * @param whom the player to draw the elements for
+     * @param world the world the elements are drawn in
+     * @param elements the elements to draw
+     */
+    public static void drawAllFallingBlocks(Player whom, World world, Collection<? extends FakeFallingBlockElement> elements) {
+        if (elements.isEmpty()) return;
+
+        List<PacketContainer> packets = new ArrayList<>(elements.size() * 2 + 1);
+        Map<String, ArrayList<String>> teamToUUID = new HashMap<>();
+        for (FakeFallingBlockElement element : elements) {
+            if (!element.prepareDraw(whom, world)) continue;
+
+            element.stage(packets);
+            teamToUUID.computeIfAbsent(element.teamName, team -> new ArrayList<>()).add(element.entityUID().toString());
+        }
+
+        // add the blocks to the scoreboard teams to give color to the glow effect
+        for (Map.Entry<String, ArrayList<String>> entry : teamToUUID.entrySet()) {
+            packets.add(teamPacket(3, entry.getKey(), entry.getValue()));
+        }
+
+        ProtocolUtil.sendBundled(whom, packets);
+    }
 
-        ProtocolLibrary.getProtocolManager().sendServerPacket(player, addEntity);
-        ProtocolLibrary.getProtocolManager().sendServerPacket(player, entityMeta);
-        ProtocolLibrary.getProtocolManager().sendServerPacket(player, addToTeam);
+    /**
+     * Creates a packet adding entities to or removing them from a scoreboard team.
+     * @param action 3 to add the members, 4 to remove them
+     * @param teamName the name of the team
+     * @param members the UUIDs of the team members
+     * @return the packet
+     */
+    static PacketContainer teamPacket(int action, String teamName, Collection<String> members) {
+        PacketContainer teamPacket = new PacketContainer(PacketType.Play.Server.SCOREBOARD_TEAM);
+        teamPacket.getIntegers().write(0, action); // add or remove action
+        teamPacket.getStrings().write(0, teamName); // team name
+        teamPacket.getSpecificModifier(Collection.class).write(0, members); // UUIDs of team members
+        return teamPacket;
     }
 
     @Override
@@ -92,6 +140,13 @@ public class FakeFallingBlockElement extends com.griefprevention.visualization.F
         }
     }
 
+    @Override
+    public boolean looksLike(@NotNull FakeEntityElement other) {
+        return super.looksLike(other)
+                && teamName.equals(((FakeFallingBlockElement) other).teamName)
+                && blockData.equals(((FakeFallingBlockElement) other).blockData);
+    }
+
     public static boolean shouldInheritBlockData(Block block, BlockData data) {
         Boolean isFullBlock = INHERIT_BLOCK_CACHE.get(data);
         if (isFullBlock == null) {
@@ -135,11 +190,7 @@ public class FakeFallingBlockElement extends com.griefprevention.visualization.F
 
             // now that we have sorted each element UUID by its team, we can bulk remove them.
             for (Map.Entry<String, ArrayList<String>> entry : teamToUUID.entrySet()) {
-                PacketContainer teamPacket = new PacketContainer(PacketType.Play.Server.SCOREBOARD_TEAM);
-                teamPacket.getIntegers().write(0, 4); // remove action
-                teamPacket.getStrings().write(0, entry.getKey()); // team name
-                teamPacket.getSpecificModifier(Collection.class).write(0, entry.getValue()); // UUIDs of team members to remove
-                ProtocolLibrary.getProtocolManager().sendServerPacket(whom, teamPacket);
+                ProtocolLibrary.getProtocolManager().sendServerPacket(whom, teamPacket(4, entry.getKey(), entry.getValue()));
             }
         }
     }
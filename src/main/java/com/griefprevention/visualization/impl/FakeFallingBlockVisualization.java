@@ -66,12 +66,26 @@ public class FakeFallingBlockVisualization extends EntityBlockBoundaryVisualizat
     }
 
     protected @NotNull Consumer<@NotNull IntVector> addFallingElement(@NotNull BlockData blockData, @NotNull Team teamColor) {
+        String teamName = teamColor.getName();
         return vector -> {
             // don't draw over existing elements in the same position
-            entityElements.putIfAbsent(vector, new FakeFallingBlockElement(vector, teamColor, blockData));
+            long key = IntVector.pack(vector.x(), vector.y(), vector.z());
+            if (entityElements.containsKey(key)) return;
+
+            // reuse the element already shown here if it looks the same
+            FakeFallingBlockElement element = recycle(key);
+            if (element == null || !element.teamName.equals(teamName) || !element.blockData.equals(blockData)) {
+                element = new FakeFallingBlockElement(vector, teamColor, blockData);
+            }
+            entityElements.put(key, element);
         };
     }
 
+    @Override
+    protected void drawEntities(@NotNull Player player, @NotNull Collection<FakeFallingBlockElement> toDraw) {
+        FakeFallingBlockElement.drawAllFallingBlocks(player, world, toDraw);
+    }
+
     @Override
     public void revert(Player player) {
         if (player != null) {
@@ -81,7 +95,9 @@ public class FakeFallingBlockVisualization extends EntityBlockBoundaryVisualizat
 
     @Override
     public boolean isValidFloor(World world, int originalY, int x, int y, int z) {
-        return isFloor(world, originalY, x, y, z);
+        // other worlds can't use the visualization's cache
+        if (world != this.world) return isFloor(world, originalY, x, y, z);
+        return isFloor(this, x, y, z);
     }
 
     public static boolean isFloor(World world, int originalY, int x, int y, int z) {
@@ -89,6 +105,30 @@ public class FakeFallingBlockVisualization extends EntityBlockBoundaryVisualizat
         return isFloorBlock(block) && (!isFloorBlock(block.getRelative(BlockFace.UP)) || !isFloorBlock(block.getRelative(BlockFace.DOWN)));
     }
 
+    /**
+     * Same as {@link #isFloor(World, int, int, int, int)}, but reads blocks through a visualization's cache.
+     * @param visualization the visualization being drawn
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return true if the coordinates are a floor
+     */
+    public static boolean isFloor(EntityBlockBoundaryVisualization<?> visualization, int x, int y, int z) {
+        return isFloorBlock(visualization, x, y, z)
+                && (!isFloorBlock(visualization, x, y + 1, z) || !isFloorBlock(visualization, x, y - 1, z));
+    }
+
+    private static boolean isFloorBlock(EntityBlockBoundaryVisualization<?> visualization, int x, int y, int z) {
+        // everything above the surface is air, which is never a floor
+        if (y > visualization.getSurfaceY(x, z)) return false;
+
+        Boolean isFullBlock = FLOOR_BLOCK_CACHE.get(visualization.getCachedBlockData(x, y, z));
+        if (isFullBlock != null) return isFullBlock;
+
+        // the shape of this block data hasn't been checked yet
+        return isFloorBlock(visualization.getWorld().getBlockAt(x, y, z));
+    }
+
     public static boolean isFloorBlock(Block block) {
         Boolean isFullBlock = FLOOR_BLOCK_CACHE.get(block.getBlockData());
         if (isFullBlock == null) {
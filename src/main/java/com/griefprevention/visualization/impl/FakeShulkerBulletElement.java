@@ -9,12 +9,13 @@ import me.ryanhamshire.GriefPrevention.util.DataWatchers;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.Team;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 
 public class FakeShulkerBulletElement extends FakeEntityElement {
 
-    private String teamName;
+    String teamName;
 
     public FakeShulkerBulletElement(IntVector vector, Team teamColor) {
         super(vector);
@@ -51,6 +52,11 @@ public class FakeShulkerBulletElement extends FakeEntityElement {
         ProtocolLibrary.getProtocolManager().sendServerPacket(player, addToTeam);
     }
 
+    @Override
+    public boolean looksLike(@NotNull FakeEntityElement other) {
+        return super.looksLike(other) && teamName.equals(((FakeShulkerBulletElement) other).teamName);
+    }
+
     public static void eraseAllBullets(Player whom, Collection<? extends FakeShulkerBulletElement> elements) {
         if (!elements.isEmpty()) {
             int teamAllocSize = elements.size();
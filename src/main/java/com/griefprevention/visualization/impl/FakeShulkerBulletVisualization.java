@@ -45,9 +45,18 @@ public class FakeShulkerBulletVisualization extends EntityBlockBoundaryVisualiza
     }
 
     protected @NotNull Consumer<@NotNull IntVector> addBulletElement(@NotNull Team teamColor) {
+        String teamName = teamColor.getName();
         return vector -> {
             // don't draw over existing elements in the same position
-            entityElements.putIfAbsent(vector, new FakeShulkerBulletElement(vector, teamColor));
+            long key = IntVector.pack(vector.x(), vector.y(), vector.z());
+            if (entityElements.containsKey(key)) return;
+
+            // reuse the element already shown here if it looks the same
+            FakeShulkerBulletElement element = recycle(key);
+            if (element == null || !element.teamName.equals(teamName)) {
+                element = new FakeShulkerBulletElement(vector, teamColor);
+            }
+            entityElements.put(key, element);
         };
     }
 
@@ -60,7 +69,9 @@ public class FakeShulkerBulletVisualization extends EntityBlockBoundaryVisualiza
 
     @Override
     public boolean isValidFloor(World world, int originalY, int x, int y, int z) {
-        return FakeFallingBlockVisualization.isFloor(world, originalY, x, y, z);
+        // other worlds can't use the visualization's cache
+        if (world != this.world) return FakeFallingBlockVisualization.isFloor(world, originalY, x, y, z);
+        return FakeFallingBlockVisualization.isFloor(this, x, y, z);
     }
 
     @Override
@@ -6,71 +6,59 @@ import org.bukkit.World.Environment;
 import org.bukkit.block.Biome;
 import org.bukkit.block.BlockState;
 import org.bukkit.loot.Lootable;
+import org.bukkit.scheduler.BukkitRunnable;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
 
 //automatically extends a claim downward based on block types detected
 public class AutoExtendClaimTask implements Runnable
 {
 
+    // Maximum time to spend on the main thread per tick capturing chunk snapshots.
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(2);
+
     /**
      * Assemble information and schedule a task to update claim depth to include existing structures.
      *
+     * <p>Chunk snapshots are captured a few at a time across ticks and handed to the asynchronous search as they
+     * arrive, so the search is already under way by the time capture finishes.
+     *
      * @param claim the claim to extend the depth of
      */
     public static void scheduleAsync(@NotNull Claim claim)
     {
         if (claim.is3D()) return;
         World world = claim.getWorld();
-        BoundingBox bounds = claim.getBounds().clone();
 
         if (world == null) return;
 
-        int lowestLootableTile = bounds.getMinY();
-        ArrayList<ChunkSnapshot> snapshots = new ArrayList<>();
-        for (int chunkX = bounds.getMinX() / 16; chunkX <= bounds.getMaxX() / 16; chunkX++)
-        {
-            for (int chunkZ = bounds.getMinZ() / 16; chunkZ <= bounds.getMaxZ() / 16; chunkZ++)
-            {
-                if (world.isChunkLoaded(chunkX, chunkZ))
-                {
-                    Chunk chunk = world.getChunkAt(chunkX, chunkZ);
-
-                    // If we're on the main thread, access to tile entities will speed up the process.
-                    if (Bukkit.isPrimaryThread())
-                    {
-                        // Find the lowest non-natural storage block in the chunk.
-                        // This way chests, barrels, etc. are always protected even if player block definitions are lacking.
-                        lowestLootableTile = Math.min(lowestLootableTile, Arrays.stream(chunk.getTileEntities())
-                                // Accept only Lootable tiles that do not have loot tables.
-                                // Naturally generated Lootables only have a loot table reference until the container is
-                                // accessed. On access the loot table is used to calculate the contents and removed.
-                                // This prevents claims from always extending over unexplored structures, spawners, etc.
-                                .filter(tile -> tile instanceof Lootable lootable && lootable.getLootTable() == null)
-                                // Return smallest value or default to existing min Y if no eligible tiles are present.
-                                .mapToInt(BlockState::getY).min().orElse(lowestLootableTile));
-                    }
-
-                    // Save a snapshot of the chunk for more detailed async block searching.
-                    snapshots.add(chunk.getChunkSnapshot(false, true, false));
-                }
-            }
-        }
+        SnapshotCapture capture = new SnapshotCapture(world, claim.getBounds().clone());
+        capture.runTaskTimer(GriefPrevention.instance, 0L, 1L);
 
         Bukkit.getScheduler().runTaskAsynchronously(
                 GriefPrevention.instance,
-                new AutoExtendClaimTask(claim, snapshots, world.getEnvironment(), lowestLootableTile));
+                new AutoExtendClaimTask(claim, capture, world.getEnvironment()));
     }
 
     private final int extendIntoGroundDistance = GriefPrevention.instance.config_claims_claimsExtendIntoGroundDistance;
 
     private final Claim claim;
-    private final ArrayList<ChunkSnapshot> chunks;
-    private final Environment worldType;
-    private final Map<Biome, Set<Material>> biomePlayerMaterials = new HashMap<>();
+    private final SnapshotCapture capture;
+    private final Map<Biome, BitSet> biomePlayerMaterials = new ConcurrentHashMap<>();
+    // Player block definitions by Material ordinal for each kind of biome soil.
+    private final BitSet sandSoilPlayerMaterials;
+    private final BitSet otherSoilPlayerMaterials;
+    // Materials that are player blocks in some or all biomes, used to avoid biome lookups for most blocks.
+    private final BitSet anyBiomePlayerMaterials;
+    private final BitSet allBiomePlayerMaterials;
     private final int minY;
-    private final int lowestExistingY;
     // Definitions of biomes where sand covers surfaces instead of grass.
     static final Set<NamespacedKey> SAND_SOIL_BIOMES = Set.of(
             NamespacedKey.minecraft("snowy_beach"),
@@ -80,41 +68,100 @@ public class AutoExtendClaimTask implements Runnable
 
     private AutoExtendClaimTask(
             @NotNull Claim claim,
-            @NotNull ArrayList<@NotNull ChunkSnapshot> chunks,
-            @NotNull Environment worldType,
-            int lowestExistingY)
+            @NotNull SnapshotCapture capture,
+            @NotNull Environment worldType)
     {
         this.claim = claim;
-        this.chunks = chunks;
-        this.worldType = worldType;
-        this.lowestExistingY = Math.min(lowestExistingY, claim.getBounds().getMinY());
+        this.capture = capture;
         this.minY = Math.max(
                 Objects.requireNonNull(claim.getWorld()).getMinHeight(),
                 GriefPrevention.instance.config_claims_maxDepth);
+
+        this.sandSoilPlayerMaterials = toBitSet(getPlayerBlocks(worldType, true));
+        this.otherSoilPlayerMaterials = toBitSet(getPlayerBlocks(worldType, false));
+        this.anyBiomePlayerMaterials = (BitSet) this.sandSoilPlayerMaterials.clone();
+        this.anyBiomePlayerMaterials.or(this.otherSoilPlayerMaterials);
+        this.allBiomePlayerMaterials = (BitSet) this.sandSoilPlayerMaterials.clone();
+        this.allBiomePlayerMaterials.and(this.otherSoilPlayerMaterials);
+    }
+
+    private static @NotNull BitSet toBitSet(@NotNull Set<Material> playerBlocks)
+    {
+        playerBlocks.removeAll(BlockEventHandler.TRASH_BLOCKS);
+        BitSet bitSet = new BitSet();
+        for (Material material : playerBlocks)
+        {
+            bitSet.set(material.ordinal());
+        }
+        return bitSet;
     }
 
     @Override
     public void run()
     {
-        int newY = this.getLowestBuiltY();
+        int newY;
+        try
+        {
+            newY = this.getLowestBuiltY();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        finally
+        {
+            // Stop capturing if the search ended early.
+            this.capture.stopped = true;
+        }
+
         if (newY < this.claim.getBounds().getMinY())
         {
             Bukkit.getScheduler().runTask(GriefPrevention.instance, new ExecuteExtendClaimTask(claim, newY));
         }
     }
 
-    private int getLowestBuiltY()
+    private int getLowestBuiltY() throws InterruptedException
     {
-        int y = this.lowestExistingY;
+        int y = this.claim.getBounds().getMinY();
 
         if (yTooSmall(y)) return this.minY;
 
-        for (ChunkSnapshot chunk : this.chunks)
+        List<ChunkState> chunks = new ArrayList<>();
+        List<CapturedChunk> batch = new ArrayList<>();
+        while (true)
         {
-            y = Math.min(y, findLowerBuiltY(chunk, y));
+            CapturedChunk next = this.capture.captured.poll(100, TimeUnit.MILLISECONDS);
+            if (next == null)
+            {
+                // Everything captured before completion is already queued.
+                if (this.capture.complete)
+                {
+                    if (this.capture.captured.isEmpty()) break;
+                    continue;
+                }
+
+                // If capture was cancelled by the plugin shutting down, give up without extending.
+                if (!GriefPrevention.instance.isEnabled()) return Integer.MAX_VALUE;
+                continue;
+            }
+
+            // Search everything that arrived while the previous batch was being searched.
+            batch.add(next);
+            this.capture.captured.drainTo(batch);
+            for (CapturedChunk captured : batch)
+            {
+                // Storage blocks are always protected even if player block definitions are lacking.
+                y = Math.min(y, captured.lowestLootableY());
+                chunks.add(new ChunkState(captured.snapshot()));
+            }
+            batch.clear();
 
             // If already at minimum Y, stop searching.
             if (yTooSmall(y)) return this.minY;
+
+            y = this.searchChunks(chunks, y);
+            if (yTooSmall(y)) return this.minY;
         }
 
         y -= extendIntoGroundDistance;
@@ -122,6 +169,80 @@ public class AutoExtendClaimTask implements Runnable
         return y;
     }
 
+    private int searchChunks(@NotNull List<ChunkState> chunks, int y)
+    {
+        // Chunks are scanned in parallel from the same starting level. Structures found in one chunk lower the
+        // starting level for the others, so chunks that did not reach the new level are scanned again from it
+        // until no chunk finds anything lower. Unlike a sequential pass, the result does not depend on chunk order,
+        // which also allows chunks to be added as they are captured.
+        while (true)
+        {
+            List<ChunkState> toScan = new ArrayList<>();
+            for (ChunkState chunk : chunks)
+            {
+                if (chunk.reachedY > y) toScan.add(chunk);
+            }
+
+            // If nothing lower was found, we're done searching.
+            if (toScan.isEmpty()) return y;
+
+            ForkJoinPool.commonPool().invoke(new ChunkScan(toScan, 0, toScan.size(), y));
+
+            for (ChunkState chunk : toScan)
+            {
+                y = Math.min(y, chunk.reachedY);
+            }
+
+            // If already at minimum Y, stop searching.
+            if (yTooSmall(y)) return y;
+        }
+    }
+
+    //a captured chunk and the lowest level its search has reached
+    private static class ChunkState
+    {
+        private final ChunkSnapshot snapshot;
+        private int reachedY = Integer.MAX_VALUE;
+
+        private ChunkState(@NotNull ChunkSnapshot snapshot)
+        {
+            this.snapshot = snapshot;
+        }
+    }
+
+    //scans a range of chunks, splitting the work in half until each task handles a single chunk
+    private class ChunkScan extends RecursiveAction
+    {
+        private final List<ChunkState> chunks;
+        private final int start;
+        private final int end;
+        private final int y;
+
+        private ChunkScan(@NotNull List<ChunkState> chunks, int start, int end, int y)
+        {
+            this.chunks = chunks;
+            this.start = start;
+            this.end = end;
+            this.y = y;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (this.end - this.start == 1)
+            {
+                ChunkState chunk = this.chunks.get(this.start);
+                chunk.reachedY = findLowerBuiltY(chunk.snapshot, this.y);
+                return;
+            }
+
+            int middle = (this.start + this.end) >>> 1;
+            invokeAll(
+                    new ChunkScan(this.chunks, this.start, middle, this.y),
+                    new ChunkScan(this.chunks, middle, this.end, this.y));
+        }
+    }
+
     private int findLowerBuiltY(ChunkSnapshot chunkSnapshot, int y)
     {
         // Specifically not using yTooSmall here to allow protecting bottom layer.
@@ -169,23 +290,26 @@ public class AutoExtendClaimTask implements Runnable
 
     private boolean isPlayerBlock(ChunkSnapshot chunkSnapshot, int x, int y, int z)
     {
-        Material blockType = chunkSnapshot.getBlockType(x, y, z);
-        Biome biome = chunkSnapshot.getBiome(x, y, z);
+        // Blocks below the minimum can never be protected.
+        if (y < this.minY) return false;
 
-        return this.getBiomePlayerBlocks(biome).contains(blockType);
+        int material = chunkSnapshot.getBlockType(x, y, z).ordinal();
+
+        // Most blocks are decided without looking up the biome.
+        if (!this.anyBiomePlayerMaterials.get(material)) return false;
+        if (this.allBiomePlayerMaterials.get(material)) return true;
+
+        Biome biome = chunkSnapshot.getBiome(x, y, z);
+        return this.getBiomePlayerBlocks(biome).get(material);
     }
 
-    private Set<Material> getBiomePlayerBlocks(Biome biome)
+    private BitSet getBiomePlayerBlocks(Biome biome)
     {
         return biomePlayerMaterials.computeIfAbsent(biome, newBiome ->
-                {
-                    Set<Material> playerBlocks = AutoExtendClaimTask.getPlayerBlocks(this.worldType, newBiome);
-                    playerBlocks.removeAll(BlockEventHandler.TRASH_BLOCKS);
-                    return playerBlocks;
-                });
+                SAND_SOIL_BIOMES.contains(newBiome.getKey()) ? this.sandSoilPlayerMaterials : this.otherSoilPlayerMaterials);
     }
 
-    static Set<Material> getPlayerBlocks(Environment environment, Biome biome)
+    static Set<Material> getPlayerBlocks(Environment environment, boolean sandSoil)
     {
         Set<Material> playerBlocks = new HashSet<>();
         playerBlocks.addAll(Tag.ANVIL.getValues());
@@ -387,7 +511,7 @@ public class AutoExtendClaimTask implements Runnable
         }
 
         //these are unnatural in sandy biomes, but not elsewhere
-        if (SAND_SOIL_BIOMES.contains(biome.getKey()) || environment != Environment.NORMAL)
+        if (sandSoil || environment != Environment.NORMAL)
         {
             playerBlocks.addAll(Tag.LEAVES.getValues());
         }
@@ -405,6 +529,81 @@ public class AutoExtendClaimTask implements Runnable
         return playerBlocks;
     }
 
+    //captures snapshots of loaded chunks in the claim a few at a time, queueing them for the search as it goes
+    private static class SnapshotCapture extends BukkitRunnable
+    {
+        private final BlockingQueue<CapturedChunk> captured = new LinkedBlockingQueue<>();
+        private final World world;
+        private final int maxChunkX;
+        private final int minChunkZ;
+        private final int maxChunkZ;
+        private int chunkX;
+        private int chunkZ;
+        private volatile boolean complete = false;
+        private volatile boolean stopped = false;
+
+        private SnapshotCapture(@NotNull World world, @NotNull BoundingBox bounds)
+        {
+            this.world = world;
+            this.chunkX = bounds.getMinX() >> 4;
+            this.maxChunkX = bounds.getMaxX() >> 4;
+            this.minChunkZ = bounds.getMinZ() >> 4;
+            this.maxChunkZ = bounds.getMaxZ() >> 4;
+            this.chunkZ = this.minChunkZ;
+        }
+
+        @Override
+        public void run()
+        {
+            if (this.stopped)
+            {
+                this.cancel();
+                return;
+            }
+
+            long deadline = System.nanoTime() + NANOS_PER_TICK;
+            while (this.chunkX <= this.maxChunkX)
+            {
+                int x = this.chunkX;
+                int z = this.chunkZ;
+                if (++this.chunkZ > this.maxChunkZ)
+                {
+                    this.chunkZ = this.minChunkZ;
+                    this.chunkX++;
+                }
+
+                if (this.world.isChunkLoaded(x, z))
+                {
+                    Chunk chunk = this.world.getChunkAt(x, z);
+                    // Save a snapshot of the chunk for more detailed async block searching.
+                    this.captured.add(new CapturedChunk(chunk.getChunkSnapshot(false, true, false), getLowestLootableY(chunk)));
+                }
+
+                if (System.nanoTime() >= deadline) return;
+            }
+
+            this.complete = true;
+            this.cancel();
+        }
+
+        private static int getLowestLootableY(@NotNull Chunk chunk)
+        {
+            // Find the lowest non-natural storage block in the chunk.
+            // This way chests, barrels, etc. are always protected even if player block definitions are lacking.
+            return Arrays.stream(chunk.getTileEntities())
+                    // Accept only Lootable tiles that do not have loot tables.
+                    // Naturally generated Lootables only have a loot table reference until the container is
+                    // accessed. On access the loot table is used to calculate the contents and removed.
+                    // This prevents claims from always extending over unexplored structures, spawners, etc.
+                    .filter(tile -> tile instanceof Lootable lootable && lootable.getLootTable() == null)
+                    // Return smallest value or default to no minimum if no eligible tiles are present.
+                    .mapToInt(BlockState::getY).min().orElse(Integer.MAX_VALUE);
+        }
+    }
+
+    //a chunk snapshot along with the lowest eligible storage block in the chunk, computed once at capture
+    private record CapturedChunk(@NotNull ChunkSnapshot snapshot, int lowestLootableY) {}
+
     //runs in the main execution thread, where it can safely change claims and save those changes
     private record ExecuteExtendClaimTask(Claim claim, int newY) implements Runnable
     {
@@ -0,0 +1,113 @@
+package me.ryanhamshire.GriefPrevention;
+
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+//works through a large number of items on the main thread in batches, a few per tick, so the server doesn't freeze
+//batch size adapts to how long the previous batch took so each tick stays within budget
+class BatchJob<T> extends BukkitRunnable
+{
+
+    // Default maximum time to spend per tick.
+    static final long DEFAULT_NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final int MIN_BATCH_SIZE = 1;
+    private static final int MAX_BATCH_SIZE = 4096;
+
+    /**
+     * Process items over as many ticks as needed, with the default per-tick budget.
+     *
+     * @param items the items to process
+     * @param action the action to run on each batch of items
+     * @param onComplete called on the main thread once all items are processed, if any
+     */
+    static <T> void schedule(@NotNull Collection<? extends T> items, @NotNull Consumer<List<T>> action, @Nullable Runnable onComplete)
+    {
+        schedule(items, DEFAULT_NANOS_PER_TICK, 32, action, onComplete);
+    }
+
+    /**
+     * Process items over as many ticks as needed.
+     *
+     * @param items the items to process
+     * @param nanosPerTick the maximum time to spend per tick
+     * @param initialBatchSize the number of items in the first batch
+     * @param action the action to run on each batch of items
+     * @param onComplete called on the main thread once all items are processed, if any
+     */
+    static <T> void schedule(
+            @NotNull Collection<? extends T> items,
+            long nanosPerTick,
+            int initialBatchSize,
+            @NotNull Consumer<List<T>> action,
+            @Nullable Runnable onComplete)
+    {
+        new BatchJob<T>(items, nanosPerTick, initialBatchSize, action, onComplete).runTaskTimer(GriefPrevention.instance, 0L, 1L);
+    }
+
+    private final List<T> items;
+    private final long nanosPerTick;
+    private final Consumer<List<T>> action;
+    private final @Nullable Runnable onComplete;
+    private int index = 0;
+    private int batchSize;
+
+    BatchJob(
+            @NotNull Collection<? extends T> items,
+            long nanosPerTick,
+            int initialBatchSize,
+            @NotNull Consumer<List<T>> action,
+            @Nullable Runnable onComplete)
+    {
+        this.items = new ArrayList<>(items);
+        this.nanosPerTick = nanosPerTick;
+        this.batchSize = Math.max(MIN_BATCH_SIZE, Math.min(initialBatchSize, MAX_BATCH_SIZE));
+        this.action = action;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public void run()
+    {
+        if (!this.process()) return;
+
+        this.cancel();
+        if (this.onComplete != null) this.onComplete.run();
+    }
+
+    //processes batches until the tick's budget is used up
+    //returns true once all items are processed
+    boolean process()
+    {
+        long deadline = System.nanoTime() + this.nanosPerTick;
+        while (this.index < this.items.size())
+        {
+            int end = Math.min(this.items.size(), this.index + this.batchSize);
+            long batchStart = System.nanoTime();
+            this.action.accept(this.items.subList(this.index, end));
+            long batchNanos = System.nanoTime() - batchStart;
+            this.index = end;
+
+            // Aim for a batch to take about a quarter of the budget.
+            if (batchNanos < this.nanosPerTick / 8) this.batchSize = Math.min(this.batchSize * 2, MAX_BATCH_SIZE);
+            else if (batchNanos > this.nanosPerTick / 2) this.batchSize = Math.max(this.batchSize / 2, MIN_BATCH_SIZE);
+
+            if (System.nanoTime() >= deadline) return this.index >= this.items.size();
+        }
+
+        return true;
+    }
+
+    int getBatchSize()
+    {
+        return this.batchSize;
+    }
+
+}
@@ -19,6 +19,7 @@
 package me.ryanhamshire.GriefPrevention;
 
 import com.griefprevention.events.BoundaryVisualizationEvent;
+import com.griefprevention.protection.ProtectionContext;
 import com.griefprevention.protection.ProtectionHelper;
 import com.griefprevention.visualization.Boundary;
 import com.griefprevention.visualization.BoundaryVisualization;
@@ -174,9 +175,10 @@ public class BlockEventHandler implements Listener {
         if (!GriefPrevention.instance.claimsEnabledForWorld(placeEvent.getBlock().getWorld())) return;
 
         //make sure the player is allowed to build at the location
+        ProtectionContext context = new ProtectionContext(placeEvent);
         for (BlockState block : placeEvent.getReplacedBlockStates())
         {
-            Supplier<String> noBuildReason = ProtectionHelper.checkPermission(player, block.getLocation(), ClaimPermission.Build, placeEvent);
+            Supplier<String> noBuildReason = context.checkPermission(player, block.getLocation(), ClaimPermission.Build);
             if (noBuildReason != null)
             {
                 GriefPrevention.sendMessage(player, TextMode.Err, noBuildReason.get());
@@ -225,16 +227,18 @@ public class BlockEventHandler implements Listener {
         if (!GriefPrevention.instance.claimsEnabledForWorld(placeEvent.getBlock().getWorld())) return;
 
         //make sure the player is allowed to build at the location
-        Supplier<String> noBuildReason = ProtectionHelper.checkPermission(player, block.getLocation(), ClaimPermission.Build, placeEvent);
+        //all the checks below share one context, so the claim here is only looked up once
+        ProtectionContext context = new ProtectionContext(placeEvent);
+        Supplier<String> noBuildReason = context.checkPermission(player, block.getLocation(), ClaimPermission.Build);
         if (noBuildReason != null)
         {
             // Allow players with container trust to place books in lecterns
-            PlayerData playerData = this.dataStore.getPlayerData(player.getUniqueId());
-            Claim claim = this.dataStore.getClaimAt(block.getLocation(), false, playerData.lastClaim);
+            PlayerData playerData = context.getPlayerData(player);
+            Claim claim = context.getClaimAt(block.getLocation(), playerData.lastClaim);
             if (block.getType() == Material.LECTERN && placeEvent.getBlockReplacedState().getType() == Material.LECTERN) {
                 if (claim != null) {
                     playerData.lastClaim = claim;
-                    Supplier<String> noContainerReason = claim.checkPermission(player, ClaimPermission.Inventory, placeEvent);
+                    Supplier<String> noContainerReason = context.checkPermission(player, claim, ClaimPermission.Inventory);
                     if (noContainerReason == null)
                         return;
 
@@ -249,8 +253,8 @@ public class BlockEventHandler implements Listener {
         }
 
         //if the block is being placed within or under an existing claim
-        PlayerData playerData = this.dataStore.getPlayerData(player.getUniqueId());
-        Claim claim = this.dataStore.getClaimAt(block.getLocation(), false, playerData.lastClaim);
+        PlayerData playerData = context.getPlayerData(player);
+        Claim claim = context.getClaimAt(block.getLocation(), playerData.lastClaim);
 
         //If block is a chest, don't allow a DoubleChest to form across a claim boundary
         denyConnectingDoubleChestsAcrossClaimBoundary(claim, block, player);
@@ -270,7 +274,7 @@ public class BlockEventHandler implements Listener {
             }
 
             //if the player has permission for the claim and he's placing UNDER the claim
-            if (!claim.is3D() && block.getY() <= claim.getBounds().getMinY() && claim.checkPermission(player, ClaimPermission.Build, placeEvent) == null) {
+            if (!claim.is3D() && block.getY() <= claim.getBounds().getMinY() && context.checkPermission(player, claim, ClaimPermission.Build) == null) {
                 //extend the claim downward
                 this.dataStore.extendClaim(claim, block.getY() - GriefPrevention.instance.config_claims_claimsExtendIntoGroundDistance);
             }
@@ -307,10 +311,21 @@ public class BlockEventHandler implements Listener {
                         return;
                     }
 
-                    //as long as the automatic claim overlaps another existing claim, shrink it
+                    //size the claim to the largest square around the chest the player can afford that doesn't overlap another claim
+                    int minRadius = GriefPrevention.instance.config_claims_automaticClaimsForNewPlayersRadiusMin;
+                    int affordableRadius = ((int) Math.sqrt(playerData.getRemainingClaimBlocks()) - 1) / 2;
+                    radius = Math.min(radius, affordableRadius);
+                    radius = Math.min(radius, this.dataStore.getLargestUnclaimedRadius(block.getWorld(), block.getX(), block.getZ(), radius));
+
+                    //if even the smallest claim overlaps, try it anyway so the player is shown the claim in the way
+                    if (radius < minRadius && GriefPrevention.instance.config_claims_automaticClaimsForNewPlayersRadius >= minRadius) {
+                        radius = minRadius;
+                    }
+
+                    //if the claim still can't be created for some other reason, shrink it
                     //note that since the player had permission to place the chest, at the very least, the automatic claim will include the chest
                     CreateClaimResult result = null;
-                    while (radius >= GriefPrevention.instance.config_claims_automaticClaimsForNewPlayersRadiusMin) {
+                    while (radius >= minRadius) {
                         int area = (radius * 2 + 1) * (radius * 2 + 1);
                         if (playerData.getRemainingClaimBlocks() >= area) {
                             result = this.dataStore.createClaim(
@@ -349,6 +364,7 @@ public class BlockEventHandler implements Listener {
             }
 
             //check to see if this chest is in a claim, and warn when it isn't
+            //a claim may have just been created for it, so this can't use the context's earlier lookup
             if (GriefPrevention.instance.config_claims_preventTheft && this.dataStore.getClaimAt(block.getLocation(), false, playerData.lastClaim) == null) {
                 GriefPrevention.sendMessage(player, TextMode.Warn, Messages.UnprotectedChestWarning);
             }
@@ -460,6 +476,9 @@ public class BlockEventHandler implements Listener {
         onPistonEvent(event, event.getBlocks(), true);
     }
 
+    // Recent piston decisions, so clock-driven contraptions don't repeat the same claim checks every tick.
+    private final PistonVerdictCache pistonVerdicts = new PistonVerdictCache();
+
     // Handle piston push and pulls.
     private void onPistonEvent(BlockPistonEvent event, List<Block> blocks, boolean isRetract) {
         PistonMode pistonMode = GriefPrevention.instance.config_pistonMovement;
@@ -473,19 +492,43 @@ public class BlockEventHandler implements Listener {
         if (!GriefPrevention.instance.claimsEnabledForWorld(pistonWorld)) return;
 
         BlockFace direction = event.getDirection();
+        int claimsModCount = this.dataStore.getClaimsModCount();
+        PistonVerdictCache.Key key = PistonVerdictCache.key(pistonBlock, direction, isRetract, blocks);
+        PistonVerdictCache.Verdict verdict = pistonVerdicts.get(key, claimsModCount, pistonMode);
+        if (verdict == null) {
+            verdict = checkPistonMovement(pistonBlock, direction, blocks, isRetract, pistonMode, claimsModCount);
+            pistonVerdicts.put(key, verdict);
+        }
+
+        if (verdict.cancel) {
+            event.setCancelled(true);
+            if (verdict.conflict != null) detonatePiston(pistonBlock, verdict.pistonClaim, verdict.conflict);
+        }
+    }
+
+    // Decide whether a piston movement pushes or pulls blocks into or out of claims.
+    private @NotNull PistonVerdictCache.Verdict checkPistonMovement(
+            @NotNull Block pistonBlock,
+            @NotNull BlockFace direction,
+            @NotNull List<Block> blocks,
+            boolean isRetract,
+            @NotNull PistonMode pistonMode,
+            int claimsModCount) {
+        World pistonWorld = pistonBlock.getWorld();
         Claim pistonClaim = this.dataStore.getClaimAt(pistonBlock.getLocation(), false,
                 false, null);
 
         // A claim is required, but the piston is not inside a claim.
         if (pistonClaim == null && pistonMode == PistonMode.CLAIMS_ONLY) {
-            event.setCancelled(true);
-            return;
+            return new PistonVerdictCache.Verdict(true, null, null, claimsModCount, pistonMode);
         }
 
+        PistonVerdictCache.Verdict allowed = new PistonVerdictCache.Verdict(false, pistonClaim, null, claimsModCount, pistonMode);
+
         // If no blocks are moving, quickly check if another claim's boundaries are violated.
         if (blocks.isEmpty()) {
             // No block and retraction is always safe.
-            if (isRetract) return;
+            if (isRetract) return allowed;
 
             Block invadedBlock = pistonBlock.getRelative(direction);
             Claim claim = this.dataStore.getClaimAt(invadedBlock.getLocation(), false,
@@ -493,11 +536,10 @@ public class BlockEventHandler implements Listener {
             if (claim != null && (pistonClaim == null || !Objects.equals(pistonClaim.getOwnerID(), claim.getOwnerID())
                     || claim == pistonClaim.parent || pistonClaim != claim && claim.getSubclaimRestrictions())
             ) {
-                event.setCancelled(true);
-                detonatePiston(pistonBlock, pistonClaim, claim);
+                return new PistonVerdictCache.Verdict(true, pistonClaim, claim, claimsModCount, pistonMode);
             }
 
-            return;
+            return allowed;
         }
 
         // Create bounding box for moved blocks.
@@ -507,7 +549,7 @@ public class BlockEventHandler implements Listener {
 
         // if the pistonClaim contains all the moved blocks, and it has no children, return
         if (pistonClaim != null && pistonClaim.parent == null && pistonClaim.children.isEmpty() && pistonClaim.getBounds().contains(movedBlocks))
-            return;
+            return allowed;
 
         // Assemble list of potentially intersecting claims from chunks interacted with.
         ArrayList<Claim> intersectable = new ArrayList<>();
@@ -536,17 +578,9 @@ public class BlockEventHandler implements Listener {
         if (pistonMode == PistonMode.CLAIMS_ONLY || pistonMode == PistonMode.EVERYWHERE_SIMPLE) {
             intersectionHandler = (claim) -> {
                 // If owners are different, or moving out of subclaim and not into wilderness, or moving into a restricted subclaim, cancel.
-                if (pistonClaim == null || !Objects.equals(pistonClaim.getOwnerID(), claim.getOwnerID())
+                return pistonClaim == null || !Objects.equals(pistonClaim.getOwnerID(), claim.getOwnerID())
                         || claim == pistonClaim.parent && !pistonClaim.getBounds().intersection(movedBlocks).equals(claim.getBounds().intersection(movedBlocks))
-                        || pistonClaim != claim && claim.getSubclaimRestrictions()
-                ) {
-                    event.setCancelled(true);
-                    detonatePiston(pistonBlock, pistonClaim, claim);
-                    return true;
-                }
-
-                // Otherwise, proceed to next claim.
-                return false;
+                        || pistonClaim != claim && claim.getSubclaimRestrictions();
             };
         }
         // Precise mode: Bounding box intersection may not yield a conflict. Individual blocks must be considered.
@@ -564,17 +598,9 @@ public class BlockEventHandler implements Listener {
                 if (!contains) return false;
 
                 // If owners are different, or moving out of subclaim and not into wilderness, or moving into a restricted subclaim, cancel.
-                if (pistonClaim == null || !Objects.equals(pistonClaim.getOwnerID(), claim.getOwnerID())
+                return pistonClaim == null || !Objects.equals(pistonClaim.getOwnerID(), claim.getOwnerID())
                         || claim == pistonClaim.parent && !pistonClaim.getBounds().intersection(movedBlocks).equals(claim.getBounds().intersection(movedBlocks))
-                        || pistonClaim != claim && claim.getSubclaimRestrictions()
-                ) {
-                    event.setCancelled(true);
-                    detonatePiston(pistonBlock, pistonClaim, claim);
-                    return true;
-                }
-
-                // Otherwise, proceed to next claim.
-                return false;
+                        || pistonClaim != claim && claim.getSubclaimRestrictions();
             };
         }
 
@@ -582,9 +608,13 @@ public class BlockEventHandler implements Listener {
             // Ensure claim intersects with block bounding box.
             if (claim.getBounds().intersects(movedBlocks)) {
                 // Do additional mode-based handling.
-                if (intersectionHandler.test(claim)) return;
+                if (intersectionHandler.test(claim)) {
+                    return new PistonVerdictCache.Verdict(true, pistonClaim, claim, claimsModCount, pistonMode);
+                }
             }
         }
+
+        return allowed;
     }
 
     public static void detonatePiston(Block piston, Claim from, Claim to) {
@@ -628,33 +658,41 @@ public class BlockEventHandler implements Listener {
             @Nullable Claim initiatingClaim,
             @NotNull BiPredicate<@NotNull Claim, @NotNull BoundingBox> precisePredicate)
     {
-        // Check potentially intersecting claims from chunks interacted with.
-        Set<Claim> chunkClaims = dataStore.getChunkClaims(world, boundingBox);
-        if (initiatingClaim != null)
-        {
-            chunkClaims.remove(initiatingClaim);
-        }
+        return findBoxConflict(world, boundingBox, initiatingClaim, precisePredicate) != null;
+    }
 
-        for (Claim claim : chunkClaims)
+    /**
+     * Find a claim that conflicts with a given BoundingBox.
+     *
+     * @param world the world
+     * @param boundingBox the area that may intersect a claim
+     * @param initiatingClaim the claim from which the action was initiated
+     * @param precisePredicate a more accurate measure determining if a conflict actually occurs
+     * @return the top-level claim determined to be intersecting with the bounding box, or null if there is none
+     */
+    private @Nullable Claim findBoxConflict(
+            @NotNull World world,
+            @NotNull BoundingBox boundingBox,
+            @Nullable Claim initiatingClaim,
+            @NotNull BiPredicate<@NotNull Claim, @NotNull BoundingBox> precisePredicate)
+    {
+        // Check intersecting claims straight from the chunk index, stopping at the first conflict.
+        return dataStore.findIntersectingClaim(world, boundingBox, claim ->
         {
-            BoundingBox claimBoundingBox = new BoundingBox(claim);
-
-            // Ensure claim intersects with block bounding box.
-            if (!claimBoundingBox.intersects(boundingBox)) continue;
+            if (claim == initiatingClaim) return false;
 
+            Claim target = claim;
             // Tau: check subclaims properly
             for (Claim child : claim.children) {
                 if (child.is3D() && child.getBounds().contains(boundingBox) || child.getBounds().contains2d(boundingBox)) {
-                    claim = child;
+                    target = child;
                     break;
                 }
             }
 
             // Do additional mode-based handling.
-            if (precisePredicate.test(claim, claimBoundingBox)) return true;
-        }
-
-        return false;
+            return precisePredicate.test(target, new BoundingBox(claim));
+        });
     }
 
     /**
@@ -774,8 +812,22 @@ public class BlockEventHandler implements Listener {
             };
         } else {
             // If no player is present (dispenser, natural growth, etc.), use owner comparison.
-            sourceClaim = this.dataStore.getClaimAt(source.getLocation(), false, false, lastBlockFertilizeClaim);
-            conflictCheck = denyOtherOwnerIntersection(sourceClaim);
+            // The outcome only depends on claim owners and boundaries, so earlier checks from the same source can
+            // usually decide it without looking anything up.
+            GrowthCheck check = getGrowthCheck(source);
+            sourceClaim = check.sourceClaim;
+            Boolean conflicts = check.test(box);
+            if (conflicts == null) {
+                Claim conflict = findBoxConflict(source.getWorld(), box, sourceClaim, denyOtherOwnerIntersection(sourceClaim));
+                check.record(box, conflict);
+                conflicts = conflict != null;
+            }
+
+            if (conflicts) {
+                event.setCancelled(true);
+                cancelSourceConsumer.accept(sourceClaim);
+            }
+            return;
         }
 
         if (boxConflictsWithClaims(source.getWorld(), box, sourceClaim, conflictCheck)) {
@@ -784,6 +836,55 @@ public class BlockEventHandler implements Listener {
         }
     }
 
+    // Growth checks without a player, by source block. Dropped whenever claims change.
+    private final Map<GrowthSource, GrowthCheck> growthChecks = new HashMap<>();
+    private int growthChecksModCount = 0;
+
+    private @NotNull GrowthCheck getGrowthCheck(@NotNull Block source) {
+        int modCount = this.dataStore.getClaimsModCount();
+        if (modCount != growthChecksModCount || growthChecks.size() >= 256) {
+            growthChecks.clear();
+            growthChecksModCount = modCount;
+        }
+
+        GrowthSource key = new GrowthSource(source.getWorld().getUID(), source.getX(), source.getY(), source.getZ());
+        GrowthCheck check = growthChecks.get(key);
+        if (check == null) {
+            Claim sourceClaim = this.dataStore.getClaimAt(source.getLocation(), false, false, lastBlockFertilizeClaim);
+            check = new GrowthCheck(sourceClaim);
+            growthChecks.put(key, check);
+        }
+        return check;
+    }
+
+    private record GrowthSource(@NotNull UUID world, int x, int y, int z) {}
+
+    private static final class GrowthCheck {
+        private final @Nullable Claim sourceClaim;
+        // The last area found free of conflicts; anything inside it is free too.
+        private @Nullable BoundingBox allowed;
+        // The last claim found conflicting; anything touching it conflicts too.
+        private @Nullable Claim conflict;
+
+        private GrowthCheck(@Nullable Claim sourceClaim) {
+            this.sourceClaim = sourceClaim;
+        }
+
+        private @Nullable Boolean test(@NotNull BoundingBox box) {
+            if (conflict != null && conflict.getBounds().intersects(box)) return true;
+            if (allowed != null && allowed.contains(box)) return false;
+            return null;
+        }
+
+        private void record(@NotNull BoundingBox box, @Nullable Claim conflict) {
+            if (conflict != null) {
+                this.conflict = conflict;
+            } else {
+                this.allowed = box;
+            }
+        }
+    }
+
     @EventHandler(ignoreCancelled = true)
     public void onTreeGrow(@NotNull StructureGrowEvent event) {
         // Only take these potentially expensive steps if configured to do so.
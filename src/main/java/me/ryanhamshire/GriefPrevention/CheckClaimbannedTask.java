@@ -12,7 +12,7 @@ public class CheckClaimbannedTask implements Runnable {
             if (claim != null) {
                 if (claim.checkBanned(p.getUniqueId())) {
                     p.eject();
-                    GriefPrevention.ejectPlayerFromBannedClaim(p);
+                    GriefPrevention.ejectPlayerFromBannedClaimAsync(p);
                     GriefPrevention.sendMessage(p, TextMode.Err, Messages.BannedFromClaim);
                 }
             }
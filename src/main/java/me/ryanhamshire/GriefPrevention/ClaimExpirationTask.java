@@ -0,0 +1,338 @@
+/*
+    GriefPrevention Server Plugin for Minecraft
+    Copyright (C) 2012 Ryan Hamshire
+
+    This program is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    This program is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package me.ryanhamshire.GriefPrevention;
+
+import me.ryanhamshire.GriefPrevention.events.ClaimExpirationEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+//FEATURE: automatically remove claims owned by inactive players which:
+//...aren't protecting much OR
+//...are a free new player claim (and the player has no other claims) OR
+//...because the player has been gone a REALLY long time, and that expiration has been configured in config.yml
+
+//runs every tick in the main thread
+//each sweep reads owner activity and player data asynchronously, then checks owners on the main thread
+//starting with the longest absent, for as long as the configured time budget allows each tick
+class ClaimExpirationTask implements Runnable
+{
+    private enum State
+    {
+        IDLE,
+        PREPARING,
+        PROCESSING
+    }
+
+    // How often to log the progress of a sweep in progress.
+    private static final long PROGRESS_REPORT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private State state = State.IDLE;
+    private long nextSweepMillis;
+
+    // Owners whose exemption has already been logged, so it isn't repeated every sweep.
+    private final Set<UUID> loggedExemptions = ConcurrentHashMap.newKeySet();
+
+    // Data for the sweep in progress.
+    private Map<UUID, List<Claim>> ownerClaims;
+    private PriorityQueue<Candidate> candidates;
+
+    // Statistics for the sweep in progress.
+    private int sweepNumber = 0;
+    private int ownersInSweep;
+    private int candidatesInSweep;
+    private int candidatesChecked;
+    private int ownersExpired;
+    private long sweepStartMillis;
+    private long processingNanos;
+    private long lastProgressReportMillis;
+
+    ClaimExpirationTask()
+    {
+        // Give the server a minute to finish starting up before the first sweep.
+        this.nextSweepMillis = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
+    }
+
+    @Override
+    public void run()
+    {
+        switch (this.state)
+        {
+            case IDLE ->
+            {
+                if (System.currentTimeMillis() >= this.nextSweepMillis) this.startSweep();
+            }
+            case PROCESSING -> this.processCandidates();
+            // While preparing, the asynchronous task hands candidates back when it is done.
+            case PREPARING -> {}
+        }
+    }
+
+    private void startSweep()
+    {
+        long cutoff = this.getLatestExpiredLogin();
+
+        // Expiration is disabled entirely.
+        if (cutoff == Long.MIN_VALUE)
+        {
+            this.scheduleNextSweep();
+            return;
+        }
+
+        // Index claims by owner once per sweep rather than scanning every claim for each owner.
+        this.ownerClaims = new HashMap<>();
+        for (Claim claim : GriefPrevention.instance.dataStore.getClaims())
+        {
+            if (claim.ownerID == null || !claim.inDataStore) continue;
+            this.ownerClaims.computeIfAbsent(claim.ownerID, ownerID -> new ArrayList<>()).add(claim);
+        }
+
+        //don't do anything when there are no claims
+        if (this.ownerClaims.isEmpty())
+        {
+            this.ownerClaims = null;
+            this.scheduleNextSweep();
+            return;
+        }
+
+        this.sweepNumber++;
+        this.ownersInSweep = this.ownerClaims.size();
+        this.candidatesInSweep = 0;
+        this.candidatesChecked = 0;
+        this.ownersExpired = 0;
+        this.processingNanos = 0;
+        this.sweepStartMillis = System.currentTimeMillis();
+        this.lastProgressReportMillis = this.sweepStartMillis;
+        this.state = State.PREPARING;
+
+        GriefPrevention.AddLogEntry("Claim expiration sweep #" + this.sweepNumber + " started for " + this.ownersInSweep + " claim owners.", CustomLogEntryTypes.Debug, true);
+
+        List<UUID> owners = new ArrayList<>(this.ownerClaims.keySet());
+        Bukkit.getScheduler().runTaskAsynchronously(GriefPrevention.instance, () -> this.prepareCandidates(owners, cutoff));
+    }
+
+    //runs asynchronously, loads activity and player data for any owners that might have expired claims
+    private void prepareCandidates(@NotNull List<UUID> owners, long cutoff)
+    {
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Comparator.comparingLong(Candidate::lastPlayed));
+
+        for (UUID ownerID : owners)
+        {
+            OfflinePlayer ownerInfo = Bukkit.getServer().getOfflinePlayer(ownerID);
+
+            //expiration code uses last logout timestamp to decide whether to expire claims
+            //don't expire claims for online players
+            if (ownerInfo.isOnline()) continue;
+
+            //player is new or not in the server's cached userdata
+            long lastPlayed = ownerInfo.getLastPlayed();
+            if (lastPlayed <= 0) continue;
+
+            //player has been active too recently for any of their claims to expire
+            if (lastPlayed >= cutoff) continue;
+
+            //skip claims belonging to exempted players based on block totals in config
+            PlayerData ownerData = GriefPrevention.instance.dataStore.getPlayerDataFromStorage(ownerID);
+            int bonusBlocks = ownerData.getBonusClaimBlocks();
+            if (bonusBlocks >= GriefPrevention.instance.config_claims_expirationExemptionBonusBlocks || bonusBlocks + ownerData.getAccruedClaimBlocks() >= GriefPrevention.instance.config_claims_expirationExemptionTotalBlocks)
+            {
+                if (this.loggedExemptions.add(ownerID))
+                {
+                    GriefPrevention.AddLogEntry(ownerID + " exempt from claim expiration based on claim block counts vs. config file settings.", CustomLogEntryTypes.Debug, true);
+                }
+                continue;
+            }
+
+            //log again if the owner becomes exempt later on
+            this.loggedExemptions.remove(ownerID);
+
+            candidates.add(new Candidate(ownerID, ownerInfo, lastPlayed));
+        }
+
+        //pass it back to the main server thread, where it's safe to delete claims
+        Bukkit.getScheduler().runTask(GriefPrevention.instance, () ->
+        {
+            this.candidates = candidates;
+            this.candidatesInSweep = candidates.size();
+            this.state = State.PROCESSING;
+        });
+    }
+
+    private void processCandidates()
+    {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(GriefPrevention.instance.config_advanced_claim_expiration_millis_per_tick);
+
+        // Thresholds are recalculated each tick in case the sweep runs past midnight.
+        long chestClaimThreshold = getExpiredLoginThreshold(getChestClaimExpirationDays());
+        long allClaimsThreshold = getExpiredLoginThreshold(GriefPrevention.instance.config_claims_expirationDays);
+
+        do
+        {
+            Candidate candidate = this.candidates.poll();
+            if (candidate == null)
+            {
+                this.processingNanos += System.nanoTime() - start;
+                this.finishSweep();
+                return;
+            }
+
+            this.candidatesChecked++;
+            if (this.expireClaims(candidate, chestClaimThreshold, allClaimsThreshold)) this.ownersExpired++;
+        }
+        while (System.nanoTime() < deadline);
+
+        this.processingNanos += System.nanoTime() - start;
+
+        long now = System.currentTimeMillis();
+        if (now - this.lastProgressReportMillis >= PROGRESS_REPORT_MILLIS)
+        {
+            this.lastProgressReportMillis = now;
+            GriefPrevention.AddLogEntry("Claim expiration sweep #" + this.sweepNumber + " in progress: " + this.describeProgress(), CustomLogEntryTypes.Debug, true);
+        }
+    }
+
+    private boolean expireClaims(@NotNull Candidate candidate, long chestClaimThreshold, long allClaimsThreshold)
+    {
+        //don't expire claims for players who have logged in since the sweep began
+        if (candidate.ownerInfo().isOnline()) return false;
+
+        List<Claim> claims = this.ownerClaims.get(candidate.ownerID());
+        claims.removeIf(claim -> !claim.inDataStore);
+
+        if (claims.isEmpty())
+        {
+            GriefPrevention.AddLogEntry("Unable to find a claim to expire for " + candidate.ownerID(), CustomLogEntryTypes.Debug, true);
+            return false;
+        }
+
+        Claim claim = claims.get(0);
+
+        //if this claim is a chest claim and those are set to expire
+        if (claims.size() == 1 && claim.getArea() <= getAreaOfDefaultClaim() && getChestClaimExpirationDays() > 0)
+        {
+            //if the owner has been gone at least a week, and if he has ONLY the new player claim, it will be removed
+            if (candidate.lastPlayed() >= chestClaimThreshold || expireEventCanceled(claim)) return false;
+
+            GriefPrevention.instance.dataStore.deleteClaim(claim, true, true);
+            GriefPrevention.AddLogEntry(" " + claim.getOwnerName() + "'s new player claim expired.", CustomLogEntryTypes.AdminActivity);
+            return true;
+        }
+
+        //if configured to always remove claims after some inactivity period without exceptions...
+        if (GriefPrevention.instance.config_claims_expirationDays > 0)
+        {
+            if (candidate.lastPlayed() >= allClaimsThreshold || expireEventCanceled(claim)) return false;
+
+            //delete them
+            GriefPrevention.instance.dataStore.deleteClaimsForPlayer(candidate.ownerID(), true);
+            GriefPrevention.AddLogEntry(" All of " + claim.getOwnerName() + "'s claims have expired.", CustomLogEntryTypes.AdminActivity);
+            GriefPrevention.AddLogEntry("ownerInfo#getLastPlayed: " + candidate.lastPlayed(), CustomLogEntryTypes.Debug, true);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void finishSweep()
+    {
+        GriefPrevention.AddLogEntry("Claim expiration sweep #" + this.sweepNumber + " finished in "
+                + TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - this.sweepStartMillis) + "s: "
+                + this.describeProgress(), CustomLogEntryTypes.Debug, true);
+
+        this.ownerClaims = null;
+        this.candidates = null;
+        this.scheduleNextSweep();
+    }
+
+    private void scheduleNextSweep()
+    {
+        this.state = State.IDLE;
+        this.nextSweepMillis = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(GriefPrevention.instance.config_advanced_claim_expiration_sweep_interval);
+    }
+
+    private @NotNull String describeProgress()
+    {
+        double processingMillis = this.processingNanos / 1_000_000D;
+        long throughput = processingMillis > 0 ? Math.round(this.candidatesChecked / (processingMillis / 1000D)) : 0;
+        return this.candidatesChecked + "/" + this.candidatesInSweep + " inactive owners checked ("
+                + this.ownersInSweep + " owners total), " + this.ownersExpired + " expired, "
+                + String.format("%.1f", processingMillis) + "ms on main thread (" + throughput + " owners/s)";
+    }
+
+    // Get the most recent login time that could still result in any claim expiring.
+    private static long getLatestExpiredLogin()
+    {
+        long cutoff = Long.MIN_VALUE;
+        if (getChestClaimExpirationDays() > 0)
+        {
+            cutoff = getExpiredLoginThreshold(getChestClaimExpirationDays());
+        }
+        if (GriefPrevention.instance.config_claims_expirationDays > 0)
+        {
+            cutoff = Math.max(cutoff, getExpiredLoginThreshold(GriefPrevention.instance.config_claims_expirationDays));
+        }
+        return cutoff;
+    }
+
+    private static long getExpiredLoginThreshold(int days)
+    {
+        Calendar earliestPermissibleLastLogin = Calendar.getInstance();
+        earliestPermissibleLastLogin.add(Calendar.DATE, -days);
+        return earliestPermissibleLastLogin.getTimeInMillis();
+    }
+
+    // Chest claims only expire separately if automatic chest claims are enabled.
+    private static int getChestClaimExpirationDays()
+    {
+        if (GriefPrevention.instance.config_claims_automaticClaimsForNewPlayersRadius < 0) return 0;
+        return GriefPrevention.instance.config_claims_chestClaimExpirationDays;
+    }
+
+    //determine area of the default chest claim
+    private static int getAreaOfDefaultClaim()
+    {
+        int radius = GriefPrevention.instance.config_claims_automaticClaimsForNewPlayersRadius;
+        if (radius < 0) return 0;
+        return (radius * 2 + 1) * (radius * 2 + 1);
+    }
+
+    private static boolean expireEventCanceled(@NotNull Claim claim)
+    {
+        //see if any other plugins don't want this claim deleted
+        ClaimExpirationEvent event = new ClaimExpirationEvent(claim);
+        Bukkit.getPluginManager().callEvent(event);
+        return event.isCancelled();
+    }
+
+    private record Candidate(@NotNull UUID ownerID, @NotNull OfflinePlayer ownerInfo, long lastPlayed) {}
+
+}
@@ -0,0 +1,178 @@
+package me.ryanhamshire.GriefPrevention;
+
+import org.bukkit.World;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A filter for looking up top-level claims a page at a time with {@link DataStore#queryClaims(ClaimQuery, long, int)}.
+ *
+ * <p>Queries are immutable. Results are ordered by claim ID, and each {@link Page} carries a cursor that resumes
+ * right after the last claim it contained, so pages stay consistent while claims are created or deleted.
+ */
+public final class ClaimQuery
+{
+
+    /**
+     * The cursor for requesting the first page of results.
+     */
+    public static final long START = Long.MIN_VALUE;
+
+    private final @Nullable UUID owner;
+    private final boolean admin;
+    private final @Nullable World world;
+    private final int minArea;
+    private final int maxArea;
+    private final @Nullable Date modifiedSince;
+
+    private ClaimQuery(@Nullable UUID owner, boolean admin, @Nullable World world, int minArea, int maxArea, @Nullable Date modifiedSince)
+    {
+        this.owner = owner;
+        this.admin = admin;
+        this.world = world;
+        this.minArea = minArea;
+        this.maxArea = maxArea;
+        this.modifiedSince = modifiedSince;
+    }
+
+    /**
+     * Create a query matching all top-level claims.
+     *
+     * @return the query created
+     */
+    @Contract(" -> new")
+    public static @NotNull ClaimQuery all()
+    {
+        return new ClaimQuery(null, false, null, 0, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Create a query matching claims owned by a player.
+     *
+     * @param owner the UUID of the owner
+     * @return the query created
+     */
+    @Contract("_ -> new")
+    public static @NotNull ClaimQuery ownedBy(@NotNull UUID owner)
+    {
+        return new ClaimQuery(owner, false, null, 0, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Create a query matching administrative claims.
+     *
+     * @return the query created
+     */
+    @Contract(" -> new")
+    public static @NotNull ClaimQuery adminClaims()
+    {
+        return new ClaimQuery(null, true, null, 0, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Create a copy of the query that only matches claims in a world.
+     *
+     * @param world the world
+     * @return the query created
+     */
+    @Contract("_ -> new")
+    public @NotNull ClaimQuery inWorld(@NotNull World world)
+    {
+        return new ClaimQuery(this.owner, this.admin, world, this.minArea, this.maxArea, this.modifiedSince);
+    }
+
+    /**
+     * Create a copy of the query that only matches claims with an area in a range.
+     *
+     * @param minArea the minimum area, inclusive
+     * @param maxArea the maximum area, inclusive
+     * @return the query created
+     */
+    @Contract("_, _ -> new")
+    public @NotNull ClaimQuery withArea(int minArea, int maxArea)
+    {
+        return new ClaimQuery(this.owner, this.admin, this.world, minArea, maxArea, this.modifiedSince);
+    }
+
+    /**
+     * Create a copy of the query that only matches claims modified at or after a time.
+     *
+     * @param date the earliest modification time
+     * @return the query created
+     */
+    @Contract("_ -> new")
+    public @NotNull ClaimQuery modifiedSince(@NotNull Date date)
+    {
+        return new ClaimQuery(this.owner, this.admin, this.world, this.minArea, this.maxArea, date);
+    }
+
+    /**
+     * @return the owner claims must belong to, if any
+     */
+    public @Nullable UUID getOwner()
+    {
+        return this.owner;
+    }
+
+    /**
+     * @return true if only administrative claims match
+     */
+    public boolean isAdminOnly()
+    {
+        return this.admin;
+    }
+
+    /**
+     * Check if a claim matches the query.
+     *
+     * @param claim the claim
+     * @return true if the claim matches
+     */
+    public boolean matches(@NotNull Claim claim)
+    {
+        if (claim.parent != null || !claim.inDataStore) return false;
+        if (this.admin && !claim.isAdminClaim()) return false;
+        if (this.owner != null && !this.owner.equals(claim.ownerID)) return false;
+        if (this.world != null && !this.world.equals(claim.getWorld())) return false;
+
+        int area = claim.getArea();
+        if (area < this.minArea || area > this.maxArea) return false;
+
+        return this.modifiedSince == null || claim.modifiedDate != null && !claim.modifiedDate.before(this.modifiedSince);
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        if (this == other) return true;
+        if (!(other instanceof ClaimQuery query)) return false;
+        return this.admin == query.admin
+                && this.minArea == query.minArea
+                && this.maxArea == query.maxArea
+                && Objects.equals(this.owner, query.owner)
+                && Objects.equals(this.world, query.world)
+                && Objects.equals(this.modifiedSince, query.modifiedSince);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(this.owner, this.admin, this.world, this.minArea, this.maxArea, this.modifiedSince);
+    }
+
+    /**
+     * A page of claims matching a query.
+     *
+     * @param claims the claims on the page
+     * @param cursor the cursor for requesting the next page
+     * @param hasMore whether there are more matching claims after this page
+     */
+    public record Page(@NotNull List<Claim> claims, long cursor, boolean hasMore) {}
+
+}
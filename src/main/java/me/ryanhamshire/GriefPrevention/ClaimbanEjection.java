@@ -0,0 +1,341 @@
+package me.ryanhamshire.GriefPrevention;
+
+import me.ryanhamshire.GriefPrevention.util.BoundingBox;
+import me.ryanhamshire.GriefPrevention.util.SafeTeleports;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+//moves a claim-banned player to a safe spot just outside the claim
+//the search runs over chunk snapshots off the main thread, the main thread only captures snapshots, double-checks the result and teleports
+class ClaimbanEjection extends BukkitRunnable
+{
+
+    // How far past the edge of the claim to look for a safe location.
+    private static final int SEARCH_DISTANCE = 32;
+    // Maximum time to spend on the main thread per tick capturing snapshots.
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(2);
+
+    //players with a search under way, so repeated ban checks don't start more
+    private static final Set<UUID> pending = new HashSet<>();
+
+    /**
+     * Start searching for a safe location outside a claim the player is banned from, then teleport them there.
+     *
+     * @param who the banned player
+     * @param bannedClaim the claim the player is banned from
+     * @param origin the location the search should stay close to
+     */
+    static void schedule(@NotNull Player who, @NotNull Claim bannedClaim, @NotNull Location origin)
+    {
+        World world = origin.getWorld();
+        if (world == null || !pending.add(who.getUniqueId())) return;
+
+        new ClaimbanEjection(who, bannedClaim, origin, world).runTaskTimer(GriefPrevention.instance, 0L, 1L);
+    }
+
+    private final Player who;
+    private final World world;
+    private final BoundingBox around;
+    private final BoundingBox region;
+    private final int originX;
+    private final int originZ;
+    private final int minY;
+    private final int maxY;
+    private final List<MaskClaim> mask = new ArrayList<>();
+    private final long[] chunks;
+    private int nextChunk = 0;
+    private int scansOutstanding = 0;
+    private boolean captureComplete = false;
+    private boolean done = false;
+
+    ClaimbanEjection(@NotNull Player who, @NotNull Claim bannedClaim, @NotNull Location origin, @NotNull World world)
+    {
+        this.who = who;
+        this.world = world;
+        this.originX = origin.getBlockX();
+        this.originZ = origin.getBlockZ();
+        this.minY = world.getMinHeight();
+        // Only let a player teleport on top of the nether roof if they are already above it.
+        this.maxY = world.getEnvironment() == World.Environment.NETHER && who.getLocation().getBlockY() < 128 ? 126 : world.getMaxHeight() - 1;
+        this.around = bannedClaim.getBounds().clone().setY(this.minY, this.maxY);
+
+        // Teleporting players outside the WorldBorder is rude.
+        BoundingBox border = BoundingBox.of(world.getWorldBorder(), this.minY, this.maxY);
+        BoundingBox searchArea = this.around.clone();
+        searchArea.expand(SEARCH_DISTANCE, 0, SEARCH_DISTANCE, SEARCH_DISTANCE, 0, SEARCH_DISTANCE);
+        this.region = searchArea.intersection(border);
+
+        this.chunks = this.region == null ? new long[0] : this.findChunks();
+        if (this.region != null) this.buildMask();
+    }
+
+    //chunks around the claim that may hold a safe spot, nearest to the origin first
+    private long @NotNull [] findChunks()
+    {
+        List<long[]> found = new ArrayList<>();
+        for (int chunkX = this.region.getMinX() >> 4; chunkX <= this.region.getMaxX() >> 4; chunkX++)
+        {
+            for (int chunkZ = this.region.getMinZ() >> 4; chunkZ <= this.region.getMaxZ() >> 4; chunkZ++)
+            {
+                int minX = chunkX << 4;
+                int minZ = chunkZ << 4;
+                //chunks entirely inside the claim have nothing to offer
+                if (this.around.contains2d(minX, minZ, minX + 15, minZ + 15)) continue;
+
+                long dX = minX + 8 - this.originX;
+                long dZ = minZ + 8 - this.originZ;
+                found.add(new long[] { (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL, dX * dX + dZ * dZ });
+            }
+        }
+
+        found.sort(Comparator.comparingLong(chunk -> chunk[1]));
+        long[] chunks = new long[found.size()];
+        for (int i = 0; i < chunks.length; i++)
+        {
+            chunks[i] = found.get(i)[0];
+        }
+        return chunks;
+    }
+
+    //works out once which claims in the search area the player is banned from
+    private void buildMask()
+    {
+        UUID playerID = this.who.getUniqueId();
+        for (Claim claim : GriefPrevention.instance.dataStore.getChunkClaims(this.world, this.region))
+        {
+            if (claim.parent != null) continue;
+
+            List<MaskClaim> children = new ArrayList<>();
+            for (Claim child : claim.children)
+            {
+                if (child.inDataStore)
+                {
+                    children.add(new MaskClaim(child.getBounds().clone(), child.checkBanned(playerID), List.of()));
+                }
+            }
+            this.mask.add(new MaskClaim(claim.getBounds().clone(), claim.checkBanned(playerID), children));
+        }
+    }
+
+    //captures snapshots a few at a time, handing each batch off to be searched
+    @Override
+    public void run()
+    {
+        if (this.done) return;
+
+        if (!this.who.isOnline())
+        {
+            this.finish();
+            return;
+        }
+
+        long deadline = System.nanoTime() + NANOS_PER_TICK;
+        List<ChunkSnapshot> batch = new ArrayList<>();
+        while (this.nextChunk < this.chunks.length)
+        {
+            long chunk = this.chunks[this.nextChunk++];
+            int chunkX = (int) (chunk >> 32);
+            int chunkZ = (int) chunk;
+
+            // Only check loaded chunks.
+            if (!this.world.isChunkLoaded(chunkX, chunkZ)) continue;
+
+            // Snapshot includes the highest block map so air above the surface can be skipped.
+            batch.add(this.world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(true, false, false));
+
+            if (System.nanoTime() >= deadline) break;
+        }
+
+        if (!batch.isEmpty())
+        {
+            this.scansOutstanding++;
+            Bukkit.getScheduler().runTaskAsynchronously(GriefPrevention.instance, () ->
+            {
+                long[] candidates = this.search(batch);
+                Bukkit.getScheduler().runTask(GriefPrevention.instance, () -> this.onSearched(candidates));
+            });
+        }
+
+        if (this.nextChunk >= this.chunks.length)
+        {
+            this.captureComplete = true;
+            this.cancel();
+            if (this.scansOutstanding == 0) this.eject(null);
+        }
+    }
+
+    //runs in the main thread, checks candidates against the live world in order of preference
+    private void onSearched(long @NotNull [] candidates)
+    {
+        this.scansOutstanding--;
+        if (this.done) return;
+
+        Predicate<Block> notBanned = block ->
+        {
+            Claim claim = GriefPrevention.instance.dataStore.getClaimAt(block.getLocation(), false, false, null);
+            return claim == null || !claim.checkBanned(this.who);
+        };
+
+        for (int i = 0; i < candidates.length; i += 2)
+        {
+            long position = candidates[i];
+            int x = (int) (position >> 32);
+            int z = (int) position;
+            int y = (int) candidates[i + 1];
+
+            // The world may have changed since the snapshot was taken.
+            Block block = SafeTeleports.isGoodOrNull(this.world.getBlockAt(x, y, z), notBanned);
+            if (block != null)
+            {
+                this.eject(SafeTeleports.resolveTopBlockTpLocation(block, this.who.getBoundingBox()));
+                return;
+            }
+        }
+
+        if (this.captureComplete && this.scansOutstanding == 0) this.eject(null);
+    }
+
+    private void eject(Location destination)
+    {
+        this.finish();
+        if (!this.who.isOnline()) return;
+
+        // The player may have left the claim by the time the search finished.
+        Claim claim = GriefPrevention.instance.dataStore.getClaimAt(this.who.getLocation(), false, false, null);
+        if (claim == null || !claim.checkBanned(this.who)) return;
+
+        if (destination == null)
+        {
+            destination = GriefPrevention.fallbackEjectionLocation(this.who);
+        }
+        GriefPrevention.GuaranteeChunkLoaded(destination);
+        this.who.teleport(destination);
+    }
+
+    private void finish()
+    {
+        this.done = true;
+        pending.remove(this.who.getUniqueId());
+        if (!this.captureComplete)
+        {
+            this.captureComplete = true;
+            this.cancel();
+        }
+    }
+
+    //runs asynchronously, returns the nearest safe spot from each chunk as pairs of packed x/z and y
+    long @NotNull [] search(@NotNull List<ChunkSnapshot> snapshots)
+    {
+        List<long[]> found = new ArrayList<>();
+        for (ChunkSnapshot snapshot : snapshots)
+        {
+            long[] best = null;
+            int chunkMinX = snapshot.getX() << 4;
+            int chunkMinZ = snapshot.getZ() << 4;
+            int startX = Math.max(this.region.getMinX(), chunkMinX);
+            int endX = Math.min(this.region.getMaxX(), chunkMinX + 15);
+            int startZ = Math.max(this.region.getMinZ(), chunkMinZ);
+            int endZ = Math.min(this.region.getMaxZ(), chunkMinZ + 15);
+
+            for (int x = startX; x <= endX; x++)
+            {
+                for (int z = startZ; z <= endZ; z++)
+                {
+                    if (this.around.contains2d(x, z)) continue;
+
+                    long dX = x - this.originX;
+                    long dZ = z - this.originZ;
+                    long distance = dX * dX + dZ * dZ;
+                    if (best != null && distance >= best[2]) continue;
+
+                    // Nothing to stand on above the highest block in the column, so search from there down.
+                    int top = Math.min(this.maxY, snapshot.getHighestBlockYAt(x - chunkMinX, z - chunkMinZ));
+                    for (int y = top; y >= this.minY; y--)
+                    {
+                        if (!this.isSafe(snapshot, x - chunkMinX, y, z - chunkMinZ) || this.isBanned(x, y, z)) continue;
+
+                        best = new long[] { (long) x << 32 | z & 0xFFFFFFFFL, y, distance };
+                        break;
+                    }
+                }
+            }
+
+            if (best != null) found.add(best);
+        }
+
+        found.sort(Comparator.comparingLong(candidate -> candidate[2]));
+        long[] candidates = new long[found.size() * 2];
+        for (int i = 0; i < found.size(); i++)
+        {
+            candidates[i * 2] = found.get(i)[0];
+            candidates[i * 2 + 1] = found.get(i)[1];
+        }
+        return candidates;
+    }
+
+    //same idea as SafeTeleports.isBad, using only what a snapshot knows about
+    private boolean isSafe(@NotNull ChunkSnapshot snapshot, int x, int y, int z)
+    {
+        Material type = snapshot.getBlockType(x, y, z);
+        if (type.isAir() || SafeTeleports.badMaterialSwitch(type)) return false;
+        if (!type.isSolid() && (type != Material.WATER || !this.isGoodWaterBelow(snapshot, x, y, z))) return false;
+
+        // The player needs room to stand.
+        for (int i = 1; i <= 2 && y + i <= this.maxY; i++)
+        {
+            Material above = snapshot.getBlockType(x, y + i, z);
+            if (above.isSolid() || SafeTeleports.badMaterialSwitch(above)) return false;
+        }
+
+        return true;
+    }
+
+    //it's only good water if it's 4 or more water blocks thick, otherwise players could fall through
+    private boolean isGoodWaterBelow(@NotNull ChunkSnapshot snapshot, int x, int y, int z)
+    {
+        for (int i = 1; i <= 4; i++)
+        {
+            if (y - i < this.minY) return false;
+
+            Material below = snapshot.getBlockType(x, y - i, z);
+            if (below != Material.WATER && (!below.isSolid() || SafeTeleports.badMaterialSwitch(below))) return false;
+        }
+        return true;
+    }
+
+    //same lookup as DataStore.getClaimAt, using the claims captured up front
+    private boolean isBanned(int x, int y, int z)
+    {
+        for (MaskClaim claim : this.mask)
+        {
+            if (!claim.bounds().contains2d(x, z)) continue;
+
+            for (MaskClaim child : claim.children())
+            {
+                if (child.bounds().contains(x, y, z)) return child.banned();
+            }
+
+            if (claim.bounds().contains(x, y, z)) return claim.banned();
+        }
+        return false;
+    }
+
+    private record MaskClaim(@NotNull BoundingBox bounds, boolean banned, @NotNull List<MaskClaim> children) {}
+
+}
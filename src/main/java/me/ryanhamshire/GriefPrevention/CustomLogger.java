@@ -18,26 +18,45 @@
 
 package me.ryanhamshire.GriefPrevention;
 
-import com.google.common.io.Files;
 import org.bukkit.scheduler.BukkitScheduler;
 
 import java.io.File;
-import java.nio.charset.Charset;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Calendar;
-import java.util.Date;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 class CustomLogger
 {
-    private final SimpleDateFormat timestampFormat = new SimpleDateFormat("HH:mm");
-    private final SimpleDateFormat filenameFormat = new SimpleDateFormat("yyyy_MM_dd");
+    private final DateTimeFormatter timestampFormat = DateTimeFormatter.ofPattern("HH:mm");
+    private final DateTimeFormatter filenameFormat = DateTimeFormatter.ofPattern("yyyy_MM_dd");
+    private final ZoneId zone = ZoneId.systemDefault();
     private final String logFolderPath = DataStore.dataLayerFolderPath + File.separator + "Logs";
     private final int secondsBetweenWrites = 300;
+    private final int bytesBetweenWrites = 64 * 1024;
 
-    //stringbuilder is not thread safe, stringbuffer is
-    private final StringBuffer queuedEntries = new StringBuffer();
+    //entries are handed from any thread to the writer through a lock-free ring
+    private final EntryRing queuedEntries = new EntryRing(8192);
+    private final LongAdder droppedEntries = new LongAdder();
+    private volatile int peakQueuedEntries = 0;
+
+    //the rest is only touched by the writer
+    private final StringBuilder pendingText = new StringBuilder();
+    private long lastWriteMillis = System.currentTimeMillis();
+    private long droppedEntriesReported = 0;
+    private LocalDate pendingDate = null;
+    private LocalDate channelDate = null;
+    private FileChannel channel = null;
 
     CustomLogger()
     {
@@ -55,13 +74,11 @@ class CustomLogger
             BukkitScheduler scheduler = GriefPrevention.instance.getServer().getScheduler();
             final long ticksPerSecond = 20L;
             final long ticksPerDay = ticksPerSecond * 60 * 60 * 24;
-            scheduler.runTaskTimerAsynchronously(GriefPrevention.instance, new EntryWriter(), this.secondsBetweenWrites * ticksPerSecond, this.secondsBetweenWrites * ticksPerSecond);
+            scheduler.runTaskTimerAsynchronously(GriefPrevention.instance, new EntryWriter(), ticksPerSecond, ticksPerSecond);
             scheduler.runTaskTimerAsynchronously(GriefPrevention.instance, new ExpiredLogRemover(), ticksPerDay, ticksPerDay);
         }
     }
 
-    private static final Pattern inlineFormatterPattern = Pattern.compile("§.");
-
     void AddEntry(String entry, CustomLogEntryTypes entryType)
     {
         //if disabled, do nothing
@@ -71,11 +88,28 @@ class CustomLogger
         //if entry type is not enabled, do nothing
         if (!this.isEnabledType(entryType)) return;
 
-        //otherwise write to the in-memory buffer, after removing formatters
-        Matcher matcher = inlineFormatterPattern.matcher(entry);
-        entry = matcher.replaceAll("");
-        String timestamp = this.timestampFormat.format(new Date());
-        this.queuedEntries.append(timestamp).append(' ').append(entry).append('\n');
+        //otherwise hand off to the writer, which does all the formatting
+        //if the writer has fallen too far behind, the entry is dropped and counted rather than blocking the caller
+        if (!this.queuedEntries.offer(new LogRecord(System.currentTimeMillis(), entry)))
+        {
+            this.droppedEntries.increment();
+        }
+    }
+
+    /**
+     * @return the number of entries dropped because the queue was full
+     */
+    long getDroppedEntryCount()
+    {
+        return this.droppedEntries.sum();
+    }
+
+    /**
+     * @return the largest number of entries seen waiting for the writer
+     */
+    int getPeakQueuedEntryCount()
+    {
+        return this.peakQueuedEntries;
     }
 
     private boolean isEnabledType(CustomLogEntryTypes entryType)
@@ -94,29 +128,126 @@ class CustomLogger
         return true;
     }
 
-    void WriteEntries()
+    //writes everything queued so far, regardless of how much there is
+    synchronized void WriteEntries()
     {
-        try
+        this.drainEntries();
+        this.writePending();
+    }
+
+    //writes everything queued so far and releases the log file
+    synchronized void close()
+    {
+        this.WriteEntries();
+        this.closeChannel();
+    }
+
+    //moves queued entries into the pending text, writing out whenever the day changes or enough has built up
+    private synchronized void drainEntries()
+    {
+        int queued = this.queuedEntries.size();
+        if (queued > this.peakQueuedEntries) this.peakQueuedEntries = queued;
+
+        //make back-pressure visible in the log itself
+        long dropped = this.droppedEntries.sum();
+        if (dropped > this.droppedEntriesReported)
+        {
+            String warning = "Dropped " + (dropped - this.droppedEntriesReported) + " log entries because the writer fell behind (peak queue " + this.peakQueuedEntries + ").";
+            this.droppedEntriesReported = dropped;
+            this.append(new LogRecord(System.currentTimeMillis(), warning));
+        }
+
+        LogRecord record;
+        while ((record = this.queuedEntries.poll()) != null)
+        {
+            this.append(record);
+            if (this.pendingText.length() >= this.bytesBetweenWrites)
+            {
+                this.writePending();
+            }
+        }
+    }
+
+    private void append(LogRecord record)
+    {
+        ZonedDateTime time = Instant.ofEpochMilli(record.timestamp()).atZone(this.zone);
+
+        //entries belong in the file for the day they were logged
+        LocalDate date = time.toLocalDate();
+        if (this.pendingDate != null && !date.equals(this.pendingDate))
+        {
+            this.writePending();
+        }
+        this.pendingDate = date;
+
+        this.timestampFormat.formatTo(time, this.pendingText);
+        this.pendingText.append(' ');
+
+        //remove inline formatters
+        String entry = record.entry();
+        for (int i = 0; i < entry.length(); i++)
         {
-            //if nothing to write, stop here
-            if (this.queuedEntries.length() == 0) return;
+            char c = entry.charAt(i);
+            if (c == '§')
+            {
+                i++;
+                continue;
+            }
+            this.pendingText.append(c);
+        }
+        this.pendingText.append('\n');
+    }
 
-            //determine filename based on date
-            String filename = this.filenameFormat.format(new Date()) + ".log";
-            String filepath = this.logFolderPath + File.separator + filename;
-            File logFile = new File(filepath);
+    private void writePending()
+    {
+        //if nothing to write, stop here
+        if (this.pendingText.length() == 0) return;
+
+        try
+        {
+            //rotate to the file for the entries' day
+            if (this.channel == null || !this.pendingDate.equals(this.channelDate))
+            {
+                this.closeChannel();
+                String filename = this.filenameFormat.format(this.pendingDate) + ".log";
+                File logFile = new File(this.logFolderPath + File.separator + filename);
+                this.channel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                this.channelDate = this.pendingDate;
+            }
 
             //dump content
-            Files.append(this.queuedEntries.toString(), logFile, Charset.forName("UTF-8"));
+            ByteBuffer buffer = ByteBuffer.wrap(this.pendingText.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining())
+            {
+                this.channel.write(buffer);
+            }
 
             //in case of a failure to write the above due to exception,
             //the unwritten entries will remain the buffer for the next write to retry
-            this.queuedEntries.setLength(0);
+            this.pendingText.setLength(0);
+            this.lastWriteMillis = System.currentTimeMillis();
         }
         catch (Exception e)
+        {
+            this.closeChannel();
+            e.printStackTrace();
+        }
+    }
+
+    private void closeChannel()
+    {
+        if (this.channel == null) return;
+
+        try
+        {
+            this.channel.close();
+        }
+        catch (IOException e)
         {
             e.printStackTrace();
         }
+        this.channel = null;
+        this.channelDate = null;
     }
 
     private void DeleteExpiredLogs()
@@ -165,13 +296,20 @@ class CustomLogger
         }
     }
 
-    //transfers the internal buffer to a log file
+    //transfers queued entries to the pending text, and that to a log file once enough has built up or enough time has passed
     private class EntryWriter implements Runnable
     {
         @Override
         public void run()
         {
-            WriteEntries();
+            synchronized (CustomLogger.this)
+            {
+                drainEntries();
+                if (System.currentTimeMillis() - lastWriteMillis >= secondsBetweenWrites * 1000L)
+                {
+                    writePending();
+                }
+            }
         }
     }
 
@@ -183,4 +321,76 @@ class CustomLogger
             DeleteExpiredLogs();
         }
     }
+
+    private record LogRecord(long timestamp, String entry) {}
+
+    //bounded multi-producer, single-consumer ring of log records
+    //producers claim a slot by advancing the tail and publish by updating the slot's sequence, so no locks are needed
+    private static class EntryRing
+    {
+        private final int mask;
+        private final LogRecord[] records;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+        private long head = 0;
+
+        private EntryRing(int capacity)
+        {
+            //capacity must be a power of two
+            this.mask = capacity - 1;
+            this.records = new LogRecord[capacity];
+            this.sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++)
+            {
+                this.sequences.set(i, i);
+            }
+        }
+
+        //returns false if the ring is full
+        private boolean offer(LogRecord record)
+        {
+            long position = this.tail.get();
+            while (true)
+            {
+                int index = (int) position & this.mask;
+                long difference = this.sequences.get(index) - position;
+                if (difference == 0)
+                {
+                    if (this.tail.compareAndSet(position, position + 1))
+                    {
+                        this.records[index] = record;
+                        this.sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = this.tail.get();
+                }
+                else if (difference < 0)
+                {
+                    return false;
+                }
+                else
+                {
+                    position = this.tail.get();
+                }
+            }
+        }
+
+        //only called by the writer, returns null if nothing is ready
+        private LogRecord poll()
+        {
+            int index = (int) this.head & this.mask;
+            if (this.sequences.get(index) != this.head + 1) return null;
+
+            LogRecord record = this.records[index];
+            this.records[index] = null;
+            this.sequences.set(index, this.head + this.records.length);
+            this.head++;
+            return record;
+        }
+
+        private int size()
+        {
+            return (int) Math.max(0, this.tail.get() - this.head);
+        }
+    }
 }
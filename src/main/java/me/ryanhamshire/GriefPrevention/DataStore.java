@@ -26,13 +26,16 @@ import me.ryanhamshire.GriefPrevention.util.BoundingBox;
 import org.bukkit.*;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 //singleton class which manages all GriefPrevention data (except for config options)
@@ -50,9 +53,28 @@ public abstract class DataStore
     // claim id to claim cache
     public final Map<Long, Claim> claimIDMap = new ConcurrentHashMap<>();
     ConcurrentHashMap<Long, ArrayList<Claim>> chunksToClaimsMap = new ConcurrentHashMap<>();
+    //changes whenever a claim is added, removed, resized, transferred or saved, so results cached from the claims can tell when they are stale
+    private volatile int claimsModCount = 0;
+    //the claim each entity was last found in
+    private final EntityClaimCache entityClaims = new EntityClaimCache(this);
+
+    //top-level claims ordered by ID, by owner and for admin claims, so claim queries can page through them
+    private final NavigableMap<Long, Claim> claimsById = new TreeMap<>();
+    private final Map<UUID, NavigableMap<Long, Claim>> claimsByOwner = new HashMap<>();
+    private final NavigableMap<Long, Claim> adminClaimsById = new TreeMap<>();
+    //start cursors of the numbered pages listed for recent queries, so a later page resumes from the nearest one seen
+    //cursors only mark the last claim ID of the previous page, so they're dropped whenever the claims change
+    private final Map<PagedQuery, PageCursors> pageCursors = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PagedQuery, PageCursors> eldest)
+        {
+            return this.size() > 64;
+        }
+    };
 
-    //in-memory cache for messages
-    private String[] messages;
+    //in-memory cache for messages, replaced as a whole on load so readers never need a lock
+    private volatile MessageTemplate[] messages;
 
     //pattern for unique user identifiers (UUIDs)
     protected final static Pattern uuidpattern = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
@@ -87,6 +109,9 @@ public abstract class DataStore
     //list of UUIDs which are soft-muted
     ConcurrentHashMap<UUID, Boolean> softMuteMap = new ConcurrentHashMap<>();
 
+    //who is ignoring each online player
+    final IgnoreIndex ignoreIndex = new IgnoreIndex();
+
     protected int getSchemaVersion()
     {
         if (this.currentSchemaVersion >= 0)
@@ -278,14 +303,18 @@ public abstract class DataStore
     }
 
     //updates soft mute map and data file
+    //may be called from chat threads, so it has its own lock rather than waiting on the data store
     boolean toggleSoftMute(UUID playerID)
     {
-        boolean newValue = !this.isSoftMuted(playerID);
+        synchronized (this.softMuteMap)
+        {
+            boolean newValue = !this.isSoftMuted(playerID);
 
-        this.softMuteMap.put(playerID, newValue);
-        this.saveSoftMutes();
+            this.softMuteMap.put(playerID, newValue);
+            this.saveSoftMutes();
 
-        return newValue;
+            return newValue;
+        }
     }
 
     public boolean isSoftMuted(UUID playerID)
@@ -420,7 +449,10 @@ public abstract class DataStore
         }
 
         //transfer
+        this.removeFromClaimIndex(claim);
         claim.ownerID = event.getNewOwner();
+        this.addToClaimIndex(claim);
+        this.claimsModCount++;
         this.saveClaim(claim);
 
         //adjust blocks and other records
@@ -446,6 +478,7 @@ public abstract class DataStore
                 newClaim.parent.children.add(newClaim);
             }
             newClaim.inDataStore = true;
+            this.claimsModCount++;
             if (writeToStorage)
             {
                 this.saveClaim(newClaim);
@@ -461,6 +494,7 @@ public abstract class DataStore
             this.claimIDMap.put(child.id, child);
         }
         addToChunkClaimMap(newClaim);
+        addToClaimIndex(newClaim);
 
         newClaim.inDataStore = true;
 
@@ -494,6 +528,37 @@ public abstract class DataStore
 
             claimsInChunk.add(claim);
         }
+        this.claimsModCount++;
+    }
+
+    private void addToClaimIndex(Claim claim)
+    {
+        this.claimsById.put(claim.id, claim);
+        if (claim.ownerID == null)
+        {
+            this.adminClaimsById.put(claim.id, claim);
+        }
+        else
+        {
+            this.claimsByOwner.computeIfAbsent(claim.ownerID, owner -> new TreeMap<>()).put(claim.id, claim);
+        }
+    }
+
+    private void removeFromClaimIndex(Claim claim)
+    {
+        this.claimsById.remove(claim.id);
+        if (claim.ownerID == null)
+        {
+            this.adminClaimsById.remove(claim.id);
+            return;
+        }
+
+        NavigableMap<Long, Claim> ownerClaims = this.claimsByOwner.get(claim.ownerID);
+        if (ownerClaims != null)
+        {
+            ownerClaims.remove(claim.id);
+            if (ownerClaims.isEmpty()) this.claimsByOwner.remove(claim.ownerID);
+        }
     }
 
     private void removeFromChunkClaimMap(Claim claim)
@@ -519,6 +584,7 @@ public abstract class DataStore
                 }
             }
         }
+        this.claimsModCount++;
     }
 
     //turns a location into a string, useful in data storage
@@ -582,6 +648,7 @@ public abstract class DataStore
     synchronized public void saveClaim(Claim claim)
     {
         assignClaimID(claim);
+        this.claimsModCount++;
 
         this.writeClaimToStorage(claim);
     }
@@ -679,6 +746,7 @@ public abstract class DataStore
         }
 
         removeFromChunkClaimMap(claim);
+        if (claim.parent == null) removeFromClaimIndex(claim);
 
         //remove from secondary storage
         this.deleteClaimFromSecondaryStorage(claim);
@@ -707,6 +775,15 @@ public abstract class DataStore
 
     abstract void deleteClaimFromSecondaryStorage(Claim claim);
 
+    //removes a batch of claims from secondary storage, stores that can do this more efficiently should override it
+    void deleteClaimsFromSecondaryStorage(Collection<Claim> claims)
+    {
+        for (Claim claim : claims)
+        {
+            this.deleteClaimFromSecondaryStorage(claim);
+        }
+    }
+
     //gets the claim at a specific location
     //ignoreHeight = TRUE means that a location UNDER an existing claim will return the claim
     //cachedClaim can be NULL, but will help performance if you have a reasonable guess about which claim the location is in
@@ -715,6 +792,26 @@ public abstract class DataStore
         return getClaimAt(location, ignoreHeight, false, cachedClaim);
     }
 
+    /**
+     * Get the claim an {@link Entity} is in. Height is not ignored.
+     *
+     * <p>On the main thread, the claim is remembered per entity until the entity moves to another block or claims
+     * change, so entities that are checked repeatedly without moving skip the lookup.</p>
+     *
+     * @param entity the entity
+     * @param cachedClaim the cached claim, if any
+     * @return the claim containing the entity or null if no claim exists there
+     */
+    synchronized public @Nullable Claim getClaimAt(@NotNull Entity entity, @Nullable Claim cachedClaim)
+    {
+        if (!GriefPrevention.instance.config_advanced_cacheEntityClaims || !Bukkit.isPrimaryThread())
+        {
+            return this.getClaimAt(entity.getLocation(), false, cachedClaim);
+        }
+
+        return this.entityClaims.getClaimAt(entity, cachedClaim);
+    }
+
     /**
      * Get the claim at a specific location.
      *
@@ -774,6 +871,93 @@ public abstract class DataStore
         return Collections.unmodifiableCollection(this.claims);
     }
 
+    /**
+     * Get a page of top-level claims matching a query.
+     *
+     * <p>Owner and admin queries only visit that owner's claims. Other filters are checked claim by claim.
+     *
+     * @param query the query
+     * @param cursor the cursor from the previous page, or {@link ClaimQuery#START} for the first page
+     * @param limit the maximum number of claims on the page
+     * @return the page of claims
+     */
+    public synchronized @NotNull ClaimQuery.Page queryClaims(@NotNull ClaimQuery query, long cursor, int limit)
+    {
+        NavigableMap<Long, Claim> index;
+        if (query.isAdminOnly())
+        {
+            index = this.adminClaimsById;
+        }
+        else if (query.getOwner() != null)
+        {
+            index = this.claimsByOwner.getOrDefault(query.getOwner(), Collections.emptyNavigableMap());
+        }
+        else
+        {
+            index = this.claimsById;
+        }
+
+        List<Claim> page = new ArrayList<>(Math.min(limit, 64));
+        long last = cursor;
+        for (Claim claim : index.tailMap(cursor, false).values())
+        {
+            if (!query.matches(claim)) continue;
+            if (page.size() >= limit) return new ClaimQuery.Page(Collections.unmodifiableList(page), last, true);
+
+            page.add(claim);
+            last = claim.id;
+        }
+
+        return new ClaimQuery.Page(Collections.unmodifiableList(page), last, false);
+    }
+
+    /**
+     * Get a numbered page of top-level claims matching a query.
+     *
+     * <p>The start of each page listed is remembered for recent queries until the claims change, so paging forward
+     * only looks up the requested page rather than walking every page before it again.
+     *
+     * @param query the query
+     * @param pageNumber the page number, starting from 1
+     * @param pageSize the maximum number of claims on a page
+     * @return the page of claims, or null if there is no such page; the first page is returned even if it is empty
+     */
+    synchronized @Nullable ClaimQuery.Page getClaimsPage(@NotNull ClaimQuery query, int pageNumber, int pageSize)
+    {
+        if (pageNumber < 1) return null;
+
+        //cursors.get(i) is where page i + 1 starts
+        //a claim added to or removed from an earlier page shifts where every later page starts, so start over after any change
+        PagedQuery key = new PagedQuery(query, pageSize);
+        PageCursors remembered = this.pageCursors.get(key);
+        if (remembered == null || remembered.claimsModCount() != this.claimsModCount)
+        {
+            remembered = new PageCursors(this.claimsModCount, new ArrayList<>(List.of(ClaimQuery.START)));
+            this.pageCursors.put(key, remembered);
+        }
+        List<Long> cursors = remembered.cursors();
+        int number = Math.min(pageNumber, cursors.size());
+        ClaimQuery.Page page = this.queryClaims(query, cursors.get(number - 1), pageSize);
+        for (; number < pageNumber; number++)
+        {
+            if (!page.hasMore()) return null;
+            if (cursors.size() == number) cursors.add(page.cursor());
+            page = this.queryClaims(query, page.cursor(), pageSize);
+        }
+
+        //remember where the next page starts, since that's usually the next one asked for
+        if (page.hasMore() && cursors.size() == pageNumber) cursors.add(page.cursor());
+
+        //only the first page may be empty
+        if (pageNumber > 1 && page.claims().isEmpty()) return null;
+
+        return page;
+    }
+
+    private record PagedQuery(@NotNull ClaimQuery query, int pageSize) {}
+
+    private record PageCursors(int claimsModCount, @NotNull List<Long> cursors) {}
+
     public Collection<Claim> getClaims(int chunkx, int chunkz)
     {
         ArrayList<Claim> chunkClaims = this.chunksToClaimsMap.get(getChunkHash(chunkx, chunkz));
@@ -813,6 +997,87 @@ public abstract class DataStore
         return claims;
     }
 
+    /**
+     * Find a top-level claim intersecting a {@link BoundingBox}.
+     *
+     * <p>Unlike {@link #getChunkClaims(World, BoundingBox)}, claims are tested straight from the chunk index without
+     * being collected first, and the search stops at the first match. A claim spanning several chunks may be tested
+     * more than once.</p>
+     *
+     * @param world the world
+     * @param boundingBox the area
+     * @param filter an additional test a claim must pass to match
+     * @return the first matching claim, or {@code null} if there is none
+     */
+    public @Nullable Claim findIntersectingClaim(
+            @NotNull World world,
+            @NotNull BoundingBox boundingBox,
+            @NotNull Predicate<@NotNull Claim> filter)
+    {
+        int chunkXMax = boundingBox.getMaxX() >> 4;
+        int chunkZMax = boundingBox.getMaxZ() >> 4;
+
+        for (int chunkX = boundingBox.getMinX() >> 4; chunkX <= chunkXMax; ++chunkX)
+        {
+            for (int chunkZ = boundingBox.getMinZ() >> 4; chunkZ <= chunkZMax; ++chunkZ)
+            {
+                ArrayList<Claim> chunkClaims = this.chunksToClaimsMap.get(getChunkHash(chunkX, chunkZ));
+                if (chunkClaims == null) continue;
+
+                for (int i = 0; i < chunkClaims.size(); i++)
+                {
+                    Claim claim = chunkClaims.get(i);
+                    if (claim.inDataStore
+                            && claim.getBounds().intersects(boundingBox)
+                            && world.equals(claim.getWorld())
+                            && filter.test(claim))
+                    {
+                        return claim;
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get a count that changes whenever a claim is added, removed, resized, transferred or saved. Anything cached
+     * from the claims is still accurate as long as this has not changed.
+     *
+     * @return the current modification count
+     */
+    public int getClaimsModCount()
+    {
+        return this.claimsModCount;
+    }
+
+    //gets the largest radius, up to a maximum, of a square centered on a block that doesn't overlap any top-level claim
+    //looks up nearby claims once and measures how far each is from the center, rather than trying squares of decreasing size
+    //returns -1 if the block itself is already claimed
+    synchronized int getLargestUnclaimedRadius(@NotNull World world, int x, int z, int maxRadius)
+    {
+        BoundingBox area = new BoundingBox(x - maxRadius, 0, z - maxRadius, x + maxRadius, 0, z + maxRadius);
+        int radius = maxRadius;
+        for (Claim claim : this.getChunkClaims(world, area))
+        {
+            if (claim.parent != null) continue;
+
+            radius = Math.min(radius, getUnclaimedRadius(claim.getBounds(), x, z));
+        }
+
+        return radius;
+    }
+
+    //gets the largest radius of a square centered on a block that doesn't overlap an area, or -1 if the area contains the block
+    //a square overlaps the area once its radius reaches the area's distance from the center on both axes
+    static int getUnclaimedRadius(@NotNull BoundingBox bounds, int x, int z)
+    {
+        int distanceX = Math.max(bounds.getMinX() - x, x - bounds.getMaxX());
+        int distanceZ = Math.max(bounds.getMinZ() - z, z - bounds.getMaxZ());
+        return Math.max(0, Math.max(distanceX, distanceZ)) - 1;
+    }
+
     //gets an almost-unique, persistent identifier for a chunk
     public static Long getChunkHash(long chunkx, long chunkz)
     {
@@ -1025,7 +1290,14 @@ public abstract class DataStore
     //saves changes to player data to secondary storage.  MUST be called after you're done making changes, otherwise a reload will lose them
     public void savePlayerData(UUID playerID, PlayerData playerData)
     {
-        new SavePlayerDataThread(playerID, playerData).start();
+        new SavePlayerDataThread(Map.of(playerID, playerData)).start();
+    }
+
+    //saves changes to several players' data in one pass on a single background thread
+    void savePlayerData(Map<UUID, PlayerData> playerData)
+    {
+        if (playerData.isEmpty()) return;
+        new SavePlayerDataThread(new LinkedHashMap<>(playerData)).start();
     }
 
     public void asyncSavePlayerData(UUID playerID, PlayerData playerData)
@@ -1124,6 +1396,7 @@ public abstract class DataStore
 
         gy = Math.max(ly, gy);
         claim.getBounds().setY(ly, gy);
+        this.claimsModCount++;
 
         saveClaim(claim);
 
@@ -1149,17 +1422,132 @@ public abstract class DataStore
     synchronized public void deleteClaimsForPlayer(UUID playerID, boolean releasePets)
     {
         //make a list of the player's claims
-        ArrayList<Claim> claimsToDelete = new ArrayList<>();
-        for (Claim claim : this.claims)
+        NavigableMap<Long, Claim> ownerClaims = playerID == null ? this.adminClaimsById : this.claimsByOwner.get(playerID);
+        if (ownerClaims == null) return;
+
+        //delete them together
+        this.deleteClaims(new ArrayList<>(ownerClaims.values()), true);
+    }
+
+    /**
+     * Delete many claims at once.
+     *
+     * <p>Unlike deleting claims one at a time, the claim list and each owner's claims are only walked once,
+     * each owner's data is saved once, and secondary storage is updated in a single batch.
+     *
+     * @param claims the claims or subdivisions to delete
+     * @param fireEvent whether to call a {@link ClaimDeletedEvent} per claim and subdivision deleted and a
+     *                  {@link ClaimsDeletedEvent} for the batch
+     */
+    synchronized void deleteClaims(Collection<Claim> claims, boolean fireEvent)
+    {
+        ClaimDeletion deletion = new ClaimDeletion(fireEvent);
+        this.markClaimsDeleted(deletion, claims);
+        this.finishDeletion(deletion);
+    }
+
+    /**
+     * Delete many claims over as many ticks as needed.
+     *
+     * <p>Claims stop being effective and are removed from secondary storage a batch at a time. The claim list and
+     * owners' data are only updated, and events only called, once every batch is done.
+     *
+     * @param claims the claims or subdivisions to delete
+     * @param fireEvent whether to call a {@link ClaimDeletedEvent} per claim and subdivision deleted and a
+     *                  {@link ClaimsDeletedEvent} once all are deleted
+     * @param onComplete called on the main thread once all claims are deleted, if any
+     */
+    void deleteClaimsInBatches(Collection<Claim> claims, boolean fireEvent, @Nullable Runnable onComplete)
+    {
+        ClaimDeletion deletion = new ClaimDeletion(fireEvent);
+        BatchJob.<Claim>schedule(claims, batch -> this.markClaimsDeleted(deletion, batch), () ->
         {
-            if (Objects.equals(playerID, claim.ownerID))
-                claimsToDelete.add(claim);
+            this.finishDeletion(deletion);
+            if (onComplete != null) onComplete.run();
+        });
+    }
+
+    //marks claims deleted, and removes them from claim lookups and secondary storage
+    //the claim list and owners' data are left for finishDeletion, so they are updated once however many batches there are
+    synchronized void markClaimsDeleted(ClaimDeletion deletion, Collection<Claim> claims)
+    {
+        List<Claim> storageDeletes = new ArrayList<>();
+        for (Claim claim : claims)
+        {
+            if (!claim.inDataStore || deletion.deleted.contains(claim)) continue;
+
+            //mark as deleted so any references elsewhere can be ignored
+            //children come first, in the same order as deleting the claim on its own, so each gets its own event
+            for (Claim child : claim.children)
+            {
+                if (!child.inDataStore) continue;
+                child.inDataStore = false;
+                claimIDMap.remove(child.id);
+                storageDeletes.add(child);
+                deletion.deleted.add(child);
+            }
+            claim.inDataStore = false;
+            claimIDMap.remove(claim.id);
+            storageDeletes.add(claim);
+            deletion.deleted.add(claim);
+
+            //subdivisions must also be removed from the parent claim child list
+            if (claim.parent != null)
+            {
+                claim.parent.children.remove(claim);
+                this.claimsModCount++;
+                continue;
+            }
+
+            deletion.topLevelDeleted = true;
+            removeFromChunkClaimMap(claim);
+            removeFromClaimIndex(claim);
+            if (claim.ownerID != null) deletion.owners.add(claim.ownerID);
+        }
+
+        //remove from secondary storage
+        if (!storageDeletes.isEmpty()) this.deleteClaimsFromSecondaryStorage(storageDeletes);
+    }
+
+    //removes claims marked deleted from memory and their owners' data, and calls events
+    synchronized void finishDeletion(ClaimDeletion deletion)
+    {
+        if (deletion.deleted.isEmpty()) return;
+
+        //remove from memory in a single pass
+        if (deletion.topLevelDeleted) this.claims.removeIf(claim -> !claim.inDataStore);
+
+        //update player data, saving all owners together
+        Map<UUID, PlayerData> changed = new LinkedHashMap<>();
+        for (UUID ownerID : deletion.owners)
+        {
+            PlayerData ownerData = this.getPlayerData(ownerID);
+            ownerData.getClaims().removeIf(claim -> !claim.inDataStore);
+            changed.put(ownerID, ownerData);
         }
+        this.savePlayerData(changed);
 
-        //delete them one by one
-        for (Claim claim : claimsToDelete)
+        if (deletion.fireEvent)
         {
-            this.deleteClaim(claim);
+            for (Claim claim : deletion.deleted)
+            {
+                Bukkit.getPluginManager().callEvent(new ClaimDeletedEvent(claim));
+            }
+            Bukkit.getPluginManager().callEvent(new ClaimsDeletedEvent(deletion.deleted));
+        }
+    }
+
+    //claims deleted so far by a deletion that may be spread over several batches
+    static final class ClaimDeletion
+    {
+        private final boolean fireEvent;
+        private final Set<Claim> deleted = new LinkedHashSet<>();
+        private final Set<UUID> owners = new HashSet<>();
+        private boolean topLevelDeleted = false;
+
+        ClaimDeletion(boolean fireEvent)
+        {
+            this.fireEvent = fireEvent;
         }
     }
 
@@ -1413,7 +1801,7 @@ public abstract class DataStore
     protected void loadMessages()
     {
         Messages[] messageIDs = Messages.values();
-        this.messages = new String[messageIDs.length];
+        String[] messages = new String[messageIDs.length];
 
         //load the config file
         FileConfiguration config = YamlConfiguration.loadConfiguration(new File(messagesFilePath));
@@ -1425,19 +1813,19 @@ public abstract class DataStore
             // If available, migrate legacy path.
             if (config.isString(messagePath + ".Text"))
             {
-                this.messages[message.ordinal()] = config.getString(messagePath + ".Text", message.defaultValue);
+                messages[message.ordinal()] = config.getString(messagePath + ".Text", message.defaultValue);
             }
             // Otherwise prefer current value if available.
             else
             {
-                this.messages[message.ordinal()] = config.getString(messagePath, message.defaultValue);
+                messages[message.ordinal()] = config.getString(messagePath, message.defaultValue);
             }
-            config.set(messagePath, this.messages[message.ordinal()]);
+            config.set(messagePath, messages[message.ordinal()]);
 
             //support color codes
             if (message != Messages.HowToClaimRegex)
             {
-                this.messages[message.ordinal()] = this.messages[message.ordinal()].replace('$', (char) 0x00A7);
+                messages[message.ordinal()] = messages[message.ordinal()].replace('$', (char) 0x00A7);
             }
 
             if (message.notes != null)
@@ -1453,6 +1841,14 @@ public abstract class DataStore
             }
         }
 
+        //parse each message once so rendering is a single pass
+        MessageTemplate[] templates = new MessageTemplate[messages.length];
+        for (int i = 0; i < messages.length; i++)
+        {
+            templates[i] = MessageTemplate.compile(messages[i]);
+        }
+        this.messages = templates;
+
         //save any changes
         try
         {
@@ -1469,17 +1865,9 @@ public abstract class DataStore
         }
     }
 
-    synchronized public String getMessage(Messages messageID, String... args)
+    public String getMessage(Messages messageID, String... args)
     {
-        String message = messages[messageID.ordinal()];
-
-        for (int i = 0; i < args.length; i++)
-        {
-            String param = args[i];
-            message = message.replace("{" + i + "}", param);
-        }
-
-        return message;
+        return this.messages[messageID.ordinal()].render(args);
     }
 
     //used in updating the data schema from 0 to 1.
@@ -1523,21 +1911,23 @@ public abstract class DataStore
 
     private class SavePlayerDataThread extends Thread
     {
-        private final UUID playerID;
-        private final PlayerData playerData;
+        private final Map<UUID, PlayerData> playerData;
 
-        SavePlayerDataThread(UUID playerID, PlayerData playerData)
+        SavePlayerDataThread(Map<UUID, PlayerData> playerData)
         {
-            this.playerID = playerID;
             this.playerData = playerData;
         }
 
         public void run()
         {
-            //ensure player data is already read from file before trying to save
-            playerData.getAccruedClaimBlocks();
-            playerData.getClaims();
-            asyncSavePlayerData(this.playerID, this.playerData);
+            for (Map.Entry<UUID, PlayerData> entry : this.playerData.entrySet())
+            {
+                //ensure player data is already read from file before trying to save
+                PlayerData data = entry.getValue();
+                data.getAccruedClaimBlocks();
+                data.getClaims();
+                asyncSavePlayerData(entry.getKey(), data);
+            }
         }
     }
 
@@ -1550,17 +1940,19 @@ public abstract class DataStore
     }
 
     //deletes all the land claims in a specified world
-    void deleteClaimsInWorld(World world, boolean deleteAdminClaims)
+    //deletion is spread over several ticks, onComplete is called once it's done
+    void deleteClaimsInWorld(World world, boolean deleteAdminClaims, Runnable onComplete)
     {
-        for (int i = 0; i < claims.size(); i++)
+        List<Claim> claimsToDelete = new ArrayList<>();
+        for (Claim claim : this.claims)
         {
-            Claim claim = claims.get(i);
             if (claim.getWorld().equals(world))
             {
                 if (!deleteAdminClaims && claim.isAdminClaim()) continue;
-                this.deleteClaim(claim, false, false);
-                i--;
+                claimsToDelete.add(claim);
             }
         }
+
+        this.deleteClaimsInBatches(claimsToDelete, false, onComplete);
     }
 }
@@ -508,6 +508,26 @@ public class DatabaseDataStore extends DataStore
         }
     }
 
+    @Override
+    synchronized void deleteClaimsFromSecondaryStorage(Collection<Claim> claims)
+    {
+        try (PreparedStatement deleteStmnt = this.databaseConnection.prepareStatement(SQL_DELETE_CLAIM))
+        {
+            for (Claim claim : claims)
+            {
+                deleteStmnt.setLong(1, claim.id);
+                deleteStmnt.addBatch();
+            }
+            deleteStmnt.executeBatch();
+        }
+        catch (SQLException e)
+        {
+            GriefPrevention.AddLogEntry("Unable to delete data for " + claims.size() + " claims.  Details:");
+            GriefPrevention.AddLogEntry(e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     @Override
     PlayerData getPlayerDataFromStorage(UUID playerID)
     {
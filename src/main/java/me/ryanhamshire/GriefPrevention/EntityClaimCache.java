@@ -0,0 +1,97 @@
+package me.ryanhamshire.GriefPrevention;
+
+import com.griefprevention.util.LongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+//remembers which claim each entity was last found in, so entities that are hit over and over without moving
+//(mob farms, sweeping attacks, splash potions) don't need a claim lookup every time
+//only for use on the main thread
+class EntityClaimCache
+{
+
+    //beyond this many entities, start over rather than keep entries for entities that may be long gone
+    private static final int MAX_ENTRIES = 8192;
+
+    private final DataStore dataStore;
+    private final LongObjectMap<Residency> residencies = new LongObjectMap<>(256);
+    //reused for reading entity positions so lookups don't allocate a location each time
+    private final Location scratch = new Location(null, 0, 0, 0);
+    private int claimsModCount;
+
+    EntityClaimCache(@NotNull DataStore dataStore)
+    {
+        this.dataStore = dataStore;
+        this.claimsModCount = dataStore.getClaimsModCount();
+    }
+
+    /**
+     * Get the claim an entity is in. Height is not ignored.
+     *
+     * @param entity the entity
+     * @param cachedClaim a claim likely to contain the entity, if any
+     * @return the claim, or null if the entity is not in a claim
+     */
+    @Nullable Claim getClaimAt(@NotNull Entity entity, @Nullable Claim cachedClaim)
+    {
+        int modCount = this.dataStore.getClaimsModCount();
+        if (modCount != this.claimsModCount || this.residencies.size() >= MAX_ENTRIES)
+        {
+            //claims have changed, so anything remembered may be wrong
+            this.residencies.clear();
+            this.claimsModCount = modCount;
+        }
+
+        Location location = entity.getLocation(this.scratch);
+        World world = location.getWorld();
+        int x = location.getBlockX();
+        int y = location.getBlockY();
+        int z = location.getBlockZ();
+
+        Residency residency = this.residencies.get(entity.getEntityId());
+        if (residency != null && residency.world == world && residency.x == x && residency.y == y && residency.z == z)
+        {
+            return residency.claim;
+        }
+
+        //the entity has moved, but it is most likely still in the same claim
+        Claim hint = residency != null && residency.claim != null ? residency.claim : cachedClaim;
+        Claim claim = this.dataStore.getClaimAt(location, false, hint);
+
+        if (residency == null)
+        {
+            this.residencies.put(entity.getEntityId(), new Residency(world, x, y, z, claim));
+        }
+        else
+        {
+            residency.world = world;
+            residency.x = x;
+            residency.y = y;
+            residency.z = z;
+            residency.claim = claim;
+        }
+        return claim;
+    }
+
+    private static final class Residency
+    {
+        private World world;
+        private int x;
+        private int y;
+        private int z;
+        private @Nullable Claim claim;
+
+        private Residency(World world, int x, int y, int z, @Nullable Claim claim)
+        {
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.claim = claim;
+        }
+    }
+
+}
@@ -1,5 +1,6 @@
 package me.ryanhamshire.GriefPrevention;
 
+import com.griefprevention.protection.ProtectionContext;
 import me.ryanhamshire.GriefPrevention.events.PreventPvPEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
@@ -292,7 +293,7 @@ public class EntityDamageHandler implements Listener
         // but also doesn't disable self-damage.
         if (entity instanceof Player) return false;
 
-        Claim claim = dataStore.getClaimAt(entity.getLocation(), false, null);
+        Claim claim = event.context().getClaimAt(entity, null);
 
         // Only block explosion damage inside claims.
         if (claim == null) return false;
@@ -319,7 +320,7 @@ public class EntityDamageHandler implements Listener
     {
         if (!(event.damager() instanceof AreaEffectCloud)) return false;
 
-        PlayerData damagedData = dataStore.getPlayerData(damaged.getUniqueId());
+        PlayerData damagedData = event.context().getPlayerData(damaged);
 
         //case 1: recently spawned
         if (instance.config_pvp_protectFreshSpawns && damagedData.pvpImmune)
@@ -329,7 +330,7 @@ public class EntityDamageHandler implements Listener
         }
 
         //case 2: in a pvp safe zone
-        Claim damagedClaim = dataStore.getClaimAt(damaged.getLocation(), false, damagedData.lastClaim);
+        Claim damagedClaim = event.context().getClaimAt(damaged, damagedData.lastClaim);
         if (damagedClaim != null)
         {
             damagedData.lastClaim = damagedClaim;
@@ -365,8 +366,8 @@ public class EntityDamageHandler implements Listener
     {
         if (attacker == defender) return false;
 
-        PlayerData defenderData = this.dataStore.getPlayerData(defender.getUniqueId());
-        PlayerData attackerData = this.dataStore.getPlayerData(attacker.getUniqueId());
+        PlayerData defenderData = event.context().getPlayerData(defender);
+        PlayerData attackerData = event.context().getPlayerData(attacker);
 
         //FEATURE: prevent pvp in the first minute after spawn and when one or both players have no inventory
         if (instance.config_pvp_protectFreshSpawns)
@@ -397,8 +398,8 @@ public class EntityDamageHandler implements Listener
             if (sendMessages) GriefPrevention.sendMessage(attacker, TextMode.Err, message);
         };
         // Return whether PVP is handled by a claim at the attacker or defender's locations.
-        return handlePvpInClaim(attacker, defender, attacker.getLocation(), attackerData, () -> cancelHandler.accept(Messages.CantFightWhileImmune))
-                || handlePvpInClaim(attacker, defender, defender.getLocation(), defenderData, () -> cancelHandler.accept(Messages.PlayerInPvPSafeZone));
+        return handlePvpInClaim(event.context(), attacker, defender, attacker.getLocation(), attackerData, () -> cancelHandler.accept(Messages.CantFightWhileImmune))
+                || handlePvpInClaim(event.context(), attacker, defender, defender.getLocation(), defenderData, () -> cancelHandler.accept(Messages.PlayerInPvPSafeZone));
     }
 
     /**
@@ -415,7 +416,7 @@ public class EntityDamageHandler implements Listener
     {
         if (!(event.damager() instanceof Tameable pet) || !pet.isTamed() || pet.getOwner() == null) return false;
 
-        PlayerData defenderData = dataStore.getPlayerData(defender.getUniqueId());
+        PlayerData defenderData = event.context().getPlayerData(defender);
         Runnable cancelHandler = () ->
         {
             event.setCancelled(true);
@@ -430,7 +431,7 @@ public class EntityDamageHandler implements Listener
         }
 
         // Return whether PVP is handled by a claim at the defender's location.
-        return handlePvpInClaim(attacker, defender, defender.getLocation(), defenderData, cancelHandler);
+        return handlePvpInClaim(event.context(), attacker, defender, defender.getLocation(), defenderData, cancelHandler);
     }
 
     /**
@@ -458,7 +459,7 @@ public class EntityDamageHandler implements Listener
         if (attacker.equals(owner)) return true;
 
         // Allow admin override.
-        PlayerData attackerData = this.dataStore.getPlayerData(attacker.getUniqueId());
+        PlayerData attackerData = event.context().getPlayerData(attacker);
         if (attackerData.ignoreClaims) return true;
 
         // Disallow provocations while PVP-immune.
@@ -477,7 +478,7 @@ public class EntityDamageHandler implements Listener
         // Note: Internal name is not descriptive. Actual node is "GriefPrevention.PVP.ProtectPetsOutsideLandClaims"
         if (!instance.config_pvp_protectPets)
         {
-            claim = dataStore.getClaimAt(event.damaged().getLocation(), false, attackerData.lastClaim);
+            claim = event.context().getClaimAt(event.damaged(), attackerData.lastClaim);
             if (claim == null)
             {
                 // Pet is not in a claim, allow attack.
@@ -512,6 +513,7 @@ public class EntityDamageHandler implements Listener
      * Handle a PVP action depending on configured rules. Fires a {@link PreventPvPEvent} to allow addons to change
      * default behavior.
      *
+     * @param context the {@link ProtectionContext} for the event being handled
      * @param attacker the attacking {@link Player}, or null for indirect PVP like pet-induced damage
      * @param defender the defending {@link Player}
      * @param location the {@link Location} to be checked
@@ -520,6 +522,7 @@ public class EntityDamageHandler implements Listener
      * @return true if PVP is handled by claim rules
      */
     private boolean handlePvpInClaim(
+            @NotNull ProtectionContext context,
             @Nullable Player attacker,
             @NotNull Player defender,
             @NotNull Location location,
@@ -528,7 +531,7 @@ public class EntityDamageHandler implements Listener
     {
         if (playerData.inPvpCombat()) return false;
 
-        Claim claim = this.dataStore.getClaimAt(location, false, playerData.lastClaim);
+        Claim claim = context.getClaimAt(location, playerData.lastClaim);
 
         if (claim == null || !instance.claimIsPvPSafeZone(claim)) return false;
 
@@ -587,11 +590,11 @@ public class EntityDamageHandler implements Listener
         Claim cachedClaim = null;
         if (attacker != null)
         {
-            PlayerData playerData = this.dataStore.getPlayerData(attacker.getUniqueId());
+            PlayerData playerData = event.context().getPlayerData(attacker);
             cachedClaim = playerData.lastClaim;
         }
 
-        Claim claim = this.dataStore.getClaimAt(event.damaged().getLocation(), false, cachedClaim);
+        Claim claim = event.context().getClaimAt(event.damaged(), cachedClaim);
 
         // If the area is not claimed, do not handle.
         if (claim == null) return false;
@@ -603,7 +606,7 @@ public class EntityDamageHandler implements Listener
             return true;
         }
 
-        Supplier<String> failureReason = claim.checkPermission(attacker, ClaimPermission.Build, event.original());
+        Supplier<String> failureReason = event.context().checkPermission(attacker, claim, ClaimPermission.Build);
 
         // If player has build trust, fall through to next checks.
         if (failureReason == null) return false;
@@ -659,11 +662,11 @@ public class EntityDamageHandler implements Listener
         PlayerData playerData = null;
         if (attacker != null)
         {
-            playerData = this.dataStore.getPlayerData(attacker.getUniqueId());
+            playerData = event.context().getPlayerData(attacker);
             cachedClaim = playerData.lastClaim;
         }
 
-        Claim claim = this.dataStore.getClaimAt(event.damaged().getLocation(), false, cachedClaim);
+        Claim claim = event.context().getClaimAt(event.damaged(), cachedClaim);
 
         // Require a claim to handle.
         if (claim == null) return false;
@@ -745,7 +748,7 @@ public class EntityDamageHandler implements Listener
         if (attacker.equals(owner)) return true;
 
         //allow for admin override
-        PlayerData attackerData = this.dataStore.getPlayerData(attacker.getUniqueId());
+        PlayerData attackerData = event.context().getPlayerData(attacker);
         if (attackerData.ignoreClaims) return true;
 
         // Allow players to attack wolves (dogs) if under attack by them.
@@ -878,7 +881,7 @@ public class EntityDamageHandler implements Listener
             cachedClaim = playerData.lastClaim;
         }
 
-        Claim claim = this.dataStore.getClaimAt(event.getVehicle().getLocation(), false, cachedClaim);
+        Claim claim = this.dataStore.getClaimAt(event.getVehicle(), cachedClaim);
 
         // Require a claim.
         if (claim == null) return;
@@ -926,6 +929,8 @@ public class EntityDamageHandler implements Listener
             thrower = (Player) projectileSource;
         else thrower = null;
         AtomicBoolean messagedPlayer = new AtomicBoolean(false);
+        //each effect checks the same entities, so only look up their claims once
+        ProtectionContext context = new ProtectionContext(event);
 
         Collection<PotionEffect> effects = potion.getEffects();
         for (PotionEffect effect : effects)
@@ -944,7 +949,7 @@ public class EntityDamageHandler implements Listener
 
                     if (affected.getType() == EntityType.VILLAGER || affected instanceof Animals)
                     {
-                        Claim claim = this.dataStore.getClaimAt(affected.getLocation(), false, cachedClaim);
+                        Claim claim = context.getClaimAt(affected, cachedClaim);
                         if (claim != null)
                         {
                             cachedClaim = claim;
@@ -995,19 +1000,19 @@ public class EntityDamageHandler implements Listener
                 //FEATURE: prevent players from engaging in PvP combat inside land claims (when it's disabled)
                 if (instance.config_pvp_noCombatInPlayerLandClaims || instance.config_pvp_noCombatInAdminLandClaims)
                 {
-                    PlayerData playerData = this.dataStore.getPlayerData(thrower.getUniqueId());
+                    PlayerData playerData = context.getPlayerData(thrower);
                     Consumer<Messages> cancelHandler = message ->
                     {
                         event.setIntensity(affected, 0);
                         if (messagedPlayer.compareAndSet(false, true))
                             GriefPrevention.sendMessage(thrower, TextMode.Err, message);
                     };
-                    if (handlePvpInClaim(thrower, affectedPlayer, thrower.getLocation(), playerData, () -> cancelHandler.accept(Messages.CantFightWhileImmune)))
+                    if (handlePvpInClaim(context, thrower, affectedPlayer, thrower.getLocation(), playerData, () -> cancelHandler.accept(Messages.CantFightWhileImmune)))
                     {
                         continue;
                     }
-                    playerData = this.dataStore.getPlayerData(affectedPlayer.getUniqueId());
-                    handlePvpInClaim(thrower, affectedPlayer, affectedPlayer.getLocation(), playerData, () -> cancelHandler.accept(Messages.PlayerInPvPSafeZone));
+                    playerData = context.getPlayerData(affectedPlayer);
+                    handlePvpInClaim(context, thrower, affectedPlayer, affectedPlayer.getLocation(), playerData, () -> cancelHandler.accept(Messages.PlayerInPvPSafeZone));
                 }
             }
         }
@@ -1017,7 +1022,8 @@ public class EntityDamageHandler implements Listener
             @NotNull Entity damaged,
             @Nullable Entity damager,
             @NotNull EntityDamageEvent.DamageCause cause,
-            @NotNull Event original)
+            @NotNull Event original,
+            @NotNull ProtectionContext context)
     {
 
         EntityDamageInstance(@NotNull EntityDamageEvent event)
@@ -1026,7 +1032,8 @@ public class EntityDamageHandler implements Listener
                     event.getEntity(),
                     event instanceof EntityDamageByEntityEvent damageBy ? damageBy.getDamager() : null,
                     event.getCause(),
-                    event
+                    event,
+                    new ProtectionContext(event)
             );
         }
 
@@ -1036,7 +1043,8 @@ public class EntityDamageHandler implements Listener
                     event.getEntity(),
                     event instanceof EntityCombustByEntityEvent combustBy ? combustBy.getCombuster() : null,
                     EntityDamageEvent.DamageCause.FIRE_TICK,
-                    event
+                    event,
+                    new ProtectionContext(event)
             );
         }
 
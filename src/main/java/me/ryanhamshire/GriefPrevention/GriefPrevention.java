@@ -220,7 +220,9 @@ public class GriefPrevention extends JavaPlugin
     public boolean config_pistonExplosionSound;                     //whether pistons make an explosion sound when they get removed
 
     public boolean config_advanced_fixNegativeClaimblockAmounts;    //whether to attempt to fix negative claim block amounts (some addons cause/assume players can go into negative amounts)
-    public int config_advanced_claim_expiration_check_rate;            //How often GP should check for expired claims, amount in seconds
+    public int config_advanced_claim_expiration_sweep_interval;        //How long GP should wait between sweeps for expired claims, amount in hours
+    public int config_advanced_claim_expiration_millis_per_tick;    //How much time GP may spend checking for expired claims each tick, amount in milliseconds
+    public boolean config_advanced_cacheEntityClaims;                //whether to remember which claim each entity is in between checks
     public int config_advanced_offlineplayer_cache_days;            //Cache players who have logged in within the last x number of days
 
     //custom log settings
@@ -253,7 +255,7 @@ public class GriefPrevention extends JavaPlugin
     public static final int NOTIFICATION_SECONDS = 20;
 
     //adds a server log entry
-    public static synchronized void AddLogEntry(String entry, CustomLogEntryTypes customLogType, boolean excludeFromServerLogs)
+    public static void AddLogEntry(String entry, CustomLogEntryTypes customLogType, boolean excludeFromServerLogs)
     {
         if (customLogType != null && GriefPrevention.instance.customLogger != null)
         {
@@ -262,12 +264,12 @@ public class GriefPrevention extends JavaPlugin
         if (!excludeFromServerLogs) Bukkit.getConsoleSender().sendMessage(entry);
     }
 
-    public static synchronized void AddLogEntry(String entry, CustomLogEntryTypes customLogType)
+    public static void AddLogEntry(String entry, CustomLogEntryTypes customLogType)
     {
         AddLogEntry(entry, customLogType, false);
     }
 
-    public static synchronized void AddLogEntry(String entry)
+    public static void AddLogEntry(String entry)
     {
         AddLogEntry(entry, CustomLogEntryTypes.Debug);
     }
@@ -357,8 +359,8 @@ public class GriefPrevention extends JavaPlugin
         }
 
         //start recurring cleanup scan for unused claims belonging to inactive players
-        FindUnusedClaimsTask task2 = new FindUnusedClaimsTask();
-        this.getServer().getScheduler().scheduleSyncRepeatingTask(this, task2, 20L * 60, 20L * config_advanced_claim_expiration_check_rate);
+        ClaimExpirationTask task2 = new ClaimExpirationTask();
+        this.getServer().getScheduler().scheduleSyncRepeatingTask(this, task2, 1L, 1L);
 
         //start recurring check for players in claims they are banned from
         CheckClaimbannedTask task3 = new CheckClaimbannedTask();
@@ -402,7 +404,7 @@ public class GriefPrevention extends JavaPlugin
         Collection<Player> players = (Collection<Player>) GriefPrevention.instance.getServer().getOnlinePlayers();
         for (Player player : players)
         {
-            new IgnoreLoaderThread(player.getUniqueId(), this.dataStore.getPlayerData(player.getUniqueId()).ignoredPlayers).start();
+            new IgnoreLoaderThread(player.getUniqueId(), this.dataStore.getPlayerData(player.getUniqueId()).ignoredPlayers, this.dataStore.ignoreIndex).start();
         }
 
         setUpCommands();
@@ -714,7 +716,10 @@ public class GriefPrevention extends JavaPlugin
         loadDatabaseSettings(config);
 
         this.config_advanced_fixNegativeClaimblockAmounts = config.getBoolean("GriefPrevention.Advanced.fixNegativeClaimblockAmounts", true);
-        this.config_advanced_claim_expiration_check_rate = config.getInt("GriefPrevention.Advanced.ClaimExpirationCheckRate", 60);
+        //ClaimExpirationCheckRate used to be the seconds between checking single claim owners, it is replaced by the sweep interval
+        this.config_advanced_claim_expiration_sweep_interval = Math.max(1, config.getInt("GriefPrevention.Advanced.ClaimExpirationSweepIntervalHours", 6));
+        this.config_advanced_claim_expiration_millis_per_tick = Math.max(1, config.getInt("GriefPrevention.Advanced.ClaimExpirationMillisPerTick", 2));
+        this.config_advanced_cacheEntityClaims = config.getBoolean("GriefPrevention.Advanced.CacheEntityClaims", true);
         this.config_advanced_offlineplayer_cache_days = config.getInt("GriefPrevention.Advanced.OfflinePlayer_cache_days", 90);
 
         //custom logger settings
@@ -845,7 +850,9 @@ public class GriefPrevention extends JavaPlugin
         outConfig.set("GriefPrevention.BanCommandPattern", this.config_ban_commandFormat);
 
         outConfig.set("GriefPrevention.Advanced.fixNegativeClaimblockAmounts", this.config_advanced_fixNegativeClaimblockAmounts);
-        outConfig.set("GriefPrevention.Advanced.ClaimExpirationCheckRate", this.config_advanced_claim_expiration_check_rate);
+        outConfig.set("GriefPrevention.Advanced.ClaimExpirationSweepIntervalHours", this.config_advanced_claim_expiration_sweep_interval);
+        outConfig.set("GriefPrevention.Advanced.ClaimExpirationMillisPerTick", this.config_advanced_claim_expiration_millis_per_tick);
+        outConfig.set("GriefPrevention.Advanced.CacheEntityClaims", this.config_advanced_cacheEntityClaims);
         outConfig.set("GriefPrevention.Advanced.OfflinePlayer_cache_days", this.config_advanced_offlineplayer_cache_days);
 
         //custom logger settings
@@ -1687,7 +1694,7 @@ public class GriefPrevention extends JavaPlugin
                         for (Player p : Bukkit.getOnlinePlayers()) {
                             Claim inClaim = GriefPrevention.instance.dataStore.getClaimAt(p.getLocation(), false, false, null);
                             if (inClaim != null && inClaim.checkBanned(p.getUniqueId())) {
-                                ejectPlayerFromBannedClaim(p);
+                                ejectPlayerFromBannedClaimAsync(p);
                                 GriefPrevention.sendMessage(p, TextMode.Err, Messages.BannedFromClaim);
                             }
                         }
@@ -1705,7 +1712,7 @@ public class GriefPrevention extends JavaPlugin
                                 if (targetPlayer != null) {
                                     Claim inClaim = GriefPrevention.instance.dataStore.getClaimAt(targetPlayer.getLocation(), false, false, null);
                                     if (inClaim != null && inClaim.checkBanned(targetPlayer.getUniqueId())) {
-                                        ejectPlayerFromBannedClaim(targetPlayer);
+                                        ejectPlayerFromBannedClaimAsync(targetPlayer);
                                         GriefPrevention.sendMessage(player, TextMode.Err, Messages.BannedFromClaim);
                                     }
                                 }
@@ -2066,8 +2073,8 @@ public class GriefPrevention extends JavaPlugin
             }
 
             //delete all claims in that world
-            this.dataStore.deleteClaimsInWorld(world, true);
-            GriefPrevention.AddLogEntry("Deleted all claims in world: " + world.getName() + ".", CustomLogEntryTypes.AdminActivity);
+            this.dataStore.deleteClaimsInWorld(world, true, () ->
+                    GriefPrevention.AddLogEntry("Deleted all claims in world: " + world.getName() + ".", CustomLogEntryTypes.AdminActivity));
             return true;
         }
         else if (cmd.getName().equalsIgnoreCase("deleteuserclaimsinworld"))
@@ -2091,8 +2098,8 @@ public class GriefPrevention extends JavaPlugin
             }
 
             //delete all USER claims in that world
-            this.dataStore.deleteClaimsInWorld(world, false);
-            GriefPrevention.AddLogEntry("Deleted all user claims in world: " + world.getName() + ".", CustomLogEntryTypes.AdminActivity);
+            this.dataStore.deleteClaimsInWorld(world, false, () ->
+                    GriefPrevention.AddLogEntry("Deleted all user claims in world: " + world.getName() + ".", CustomLogEntryTypes.AdminActivity));
             return true;
         }
 
@@ -2120,8 +2127,8 @@ public class GriefPrevention extends JavaPlugin
         //claimslist or claimslist <player>
         else if (cmd.getName().equalsIgnoreCase("claimslist"))
         {
-            //at most one parameter
-            if (args.length > 1) return false;
+            //at most two parameters, the player and the page
+            if (args.length > 2) return false;
 
             //player whose claims will be listed
             OfflinePlayer otherPlayer;
@@ -2136,7 +2143,7 @@ public class GriefPrevention extends JavaPlugin
             }
 
             //otherwise if no permission to delve into another player's claims data
-            else if (player != null && !player.hasPermission("griefprevention.claimslistother"))
+            else if (player != null && !player.hasPermission("griefprevention.claimslistother") && !args[0].equalsIgnoreCase(player.getName()))
             {
                 GriefPrevention.sendMessage(player, TextMode.Err, Messages.ClaimsListNoPermission);
                 return true;
@@ -2153,23 +2160,41 @@ public class GriefPrevention extends JavaPlugin
                 }
             }
 
+            int pageNumber = 1;
+            if (args.length > 1)
+            {
+                pageNumber = parsePageNumber(args[1]);
+                if (pageNumber < 1) return false;
+            }
+
             //load the target player's data
             PlayerData playerData = this.dataStore.getPlayerData(otherPlayer.getUniqueId());
-            Vector<Claim> claims = playerData.getClaims();
             GriefPrevention.sendMessage(player, TextMode.Instr, Messages.StartBlockMath,
                     claimBlocksFormat.format(playerData.getAccruedClaimBlocks()),
                     claimBlocksFormat.format((playerData.getBonusClaimBlocks() + this.dataStore.getGroupBonusBlocks(otherPlayer.getUniqueId()))),
                     claimBlocksFormat.format((playerData.getAccruedClaimBlocks() + playerData.getBonusClaimBlocks() + this.dataStore.getGroupBonusBlocks(otherPlayer.getUniqueId()))));
-            if (claims.size() > 0)
+
+            //list one page of claims from the owner index
+            ClaimQuery.Page page = this.dataStore.getClaimsPage(ClaimQuery.ownedBy(otherPlayer.getUniqueId()), pageNumber, CLAIMS_PER_PAGE);
+            if (page == null)
+            {
+                GriefPrevention.sendMessage(player, TextMode.Err, Messages.ClaimsListNoSuchPage, String.valueOf(pageNumber));
+            }
+            else if (page.claims().size() > 0)
             {
                 GriefPrevention.sendMessage(player, TextMode.Instr, Messages.ClaimsListHeader);
-                for (int i = 0; i < playerData.getClaims().size(); i++)
+                for (Claim claim : page.claims())
                 {
-                    Claim claim = playerData.getClaims().get(i);
                     GriefPrevention.sendMessage(player, TextMode.Instr, getfriendlyLocationString(claim) + this.dataStore.getMessage(Messages.ContinueBlockMath, claimBlocksFormat.format(claim.getArea())));
                 }
 
                 GriefPrevention.sendMessage(player, TextMode.Instr, Messages.EndBlockMath, claimBlocksFormat.format(playerData.getRemainingClaimBlocks()));
+
+                if (page.hasMore())
+                {
+                    String name = otherPlayer.getName() == null ? otherPlayer.getUniqueId().toString() : otherPlayer.getName();
+                    GriefPrevention.sendMessage(player, TextMode.Info, Messages.ClaimsListPage, String.valueOf(pageNumber), commandLabel + " " + name + " " + (pageNumber + 1));
+                }
             }
 
             //drop the data we just loaded, if the player isn't online
@@ -2182,22 +2207,34 @@ public class GriefPrevention extends JavaPlugin
         //adminclaimslist
         else if (cmd.getName().equalsIgnoreCase("adminclaimslist"))
         {
+            //at most one parameter, the page
+            if (args.length > 1) return false;
+
+            int pageNumber = 1;
+            if (args.length > 0)
+            {
+                pageNumber = parsePageNumber(args[0]);
+                if (pageNumber < 1) return false;
+            }
+
             //find admin claims
-            Vector<Claim> claims = new Vector<>();
-            for (Claim claim : this.dataStore.claims)
+            ClaimQuery.Page page = this.dataStore.getClaimsPage(ClaimQuery.adminClaims(), pageNumber, CLAIMS_PER_PAGE);
+            if (page == null)
             {
-                if (claim.ownerID == null)  //admin claim
-                {
-                    claims.add(claim);
-                }
+                GriefPrevention.sendMessage(player, TextMode.Err, Messages.ClaimsListNoSuchPage, String.valueOf(pageNumber));
             }
-            if (claims.size() > 0)
+            else if (page.claims().size() > 0)
             {
                 GriefPrevention.sendMessage(player, TextMode.Instr, Messages.ClaimsListHeader);
-                for (Claim claim : claims)
+                for (Claim claim : page.claims())
                 {
                     GriefPrevention.sendMessage(player, TextMode.Instr, getfriendlyLocationString(claim));
                 }
+
+                if (page.hasMore())
+                {
+                    GriefPrevention.sendMessage(player, TextMode.Info, Messages.ClaimsListPage, String.valueOf(pageNumber), commandLabel + " " + (pageNumber + 1));
+                }
             }
 
             return true;
@@ -2242,9 +2279,9 @@ public class GriefPrevention extends JavaPlugin
             }
 
             //delete all admin claims
-            this.dataStore.deleteClaimsForPlayer(null, true);  //null for owner id indicates an administrative claim
-
-            GriefPrevention.AddLogEntry("Deleted all administrative claims.", CustomLogEntryTypes.AdminActivity);
+            ClaimQuery.Page adminClaims = this.dataStore.queryClaims(ClaimQuery.adminClaims(), ClaimQuery.START, Integer.MAX_VALUE);
+            this.dataStore.deleteClaimsInBatches(adminClaims.claims(), true, () ->
+                    GriefPrevention.AddLogEntry("Deleted all administrative claims.", CustomLogEntryTypes.AdminActivity));
             return true;
         }
 
@@ -2316,21 +2353,30 @@ public class GriefPrevention extends JavaPlugin
                 return false;  //causes usage to be displayed
             }
 
-            //for each online player
-            @SuppressWarnings("unchecked")
-            Collection<Player> players = (Collection<Player>) this.getServer().getOnlinePlayers();
+            //for each online player, a batch at a time
+            //changed data is collected and saved together once every player has been adjusted
+            List<Player> players = new ArrayList<>(this.getServer().getOnlinePlayers());
+            Player requester = player;
+            Map<UUID, PlayerData> changed = new LinkedHashMap<>();
             StringBuilder builder = new StringBuilder();
-            for (Player onlinePlayer : players)
+            BatchJob.<Player>schedule(players, batch ->
             {
-                UUID playerID = onlinePlayer.getUniqueId();
-                PlayerData playerData = this.dataStore.getPlayerData(playerID);
-                playerData.setBonusClaimBlocks(playerData.getBonusClaimBlocks() + adjustment);
-                this.dataStore.savePlayerData(playerID, playerData);
-                builder.append(onlinePlayer.getName()).append(' ');
-            }
+                for (Player onlinePlayer : batch)
+                {
+                    //players may have left since the command was issued, their data is still adjusted
+                    UUID playerID = onlinePlayer.getUniqueId();
+                    PlayerData playerData = this.dataStore.getPlayerData(playerID);
+                    playerData.setBonusClaimBlocks(playerData.getBonusClaimBlocks() + adjustment);
+                    changed.put(playerID, playerData);
+                    builder.append(onlinePlayer.getName()).append(' ');
+                }
+            }, () ->
+            {
+                this.dataStore.savePlayerData(changed);
 
-            GriefPrevention.sendMessage(player, TextMode.Success, Messages.AdjustBlocksAllSuccess, claimBlocksFormat.format(adjustment));
-            GriefPrevention.AddLogEntry("Adjusted all " + players.size() + "players' bonus claim blocks by " + adjustment + ".  " + builder.toString(), CustomLogEntryTypes.AdminActivity);
+                GriefPrevention.sendMessage(requester, TextMode.Success, Messages.AdjustBlocksAllSuccess, claimBlocksFormat.format(adjustment));
+                GriefPrevention.AddLogEntry("Adjusted all " + players.size() + "players' bonus claim blocks by " + adjustment + ".  " + builder.toString(), CustomLogEntryTypes.AdminActivity);
+            });
 
             return true;
         }
@@ -2609,10 +2655,14 @@ public class GriefPrevention extends JavaPlugin
         if (mode == IgnoreMode.None)
         {
             playerData.ignoredPlayers.remove(ignoree.getUniqueId());
+            this.dataStore.ignoreIndex.remove(ignorer.getUniqueId(), ignoree.getUniqueId());
         }
         else
         {
             playerData.ignoredPlayers.put(ignoree.getUniqueId(), mode != IgnoreMode.StandardIgnore);
+
+            //offline players' ignore lists are indexed when they next join
+            if (ignorer.isOnline()) this.dataStore.ignoreIndex.add(ignorer.getUniqueId(), ignoree.getUniqueId());
         }
 
         playerData.ignoreListChanged = true;
@@ -3076,7 +3126,15 @@ public class GriefPrevention extends JavaPlugin
         this.dataStore.close();
 
         //dump any remaining unwritten log entries
-        this.customLogger.WriteEntries();
+        this.customLogger.close();
+
+        //if the abridged log writer couldn't keep up, say so where admins will see it
+        long droppedLogEntries = this.customLogger.getDroppedEntryCount();
+        if (droppedLogEntries > 0)
+        {
+            AddLogEntry("Dropped " + droppedLogEntries + " abridged log entries this session because the writer fell behind (peak queue "
+                    + this.customLogger.getPeakQueuedEntryCount() + ").");
+        }
 
         AddLogEntry("GriefPrevention disabled.");
     }
@@ -3133,6 +3191,22 @@ public class GriefPrevention extends JavaPlugin
         return true;
     }
 
+    //claims shown per page by the claim list commands
+    private static final int CLAIMS_PER_PAGE = 20;
+
+    //returns the page number, or 0 if the text isn't a number
+    private static int parsePageNumber(String text)
+    {
+        try
+        {
+            return Integer.parseInt(text);
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
+        }
+    }
+
     //moves a player from the claim he's in to a nearby wilderness location
     public Location ejectPlayer(Player player) {
         return ejectPlayer(player, player.getLocation());
@@ -3176,12 +3250,23 @@ public class GriefPrevention extends JavaPlugin
         }
     }
 
-    // similar to ejectPlayer but will eject players into other claims if they are not banned from them
+    /**
+     * @deprecated Searches for a safe location on the main thread. Use {@link #ejectPlayerFromBannedClaimAsync(Player)}.
+     * @param who the banned player
+     * @return the location the player was teleported to
+     */
+    @Deprecated
     public static Location ejectPlayerFromBannedClaim(Player who) {
         return ejectPlayerFromBannedClaim(who, who.getLocation());
     }
 
-    // similar to ejectPlayer but will eject players into other claims if they are not banned from them
+    /**
+     * @deprecated Searches for a safe location on the main thread. Use {@link #ejectPlayerFromBannedClaimAsync(Player, Location)}.
+     * @param who the banned player
+     * @param candidateLocation the location to eject the player from
+     * @return the location the player was teleported to
+     */
+    @Deprecated
     public static Location ejectPlayerFromBannedClaim(Player who, Location candidateLocation) {
         candidateLocation = ejectionLocationForClaimban(who, candidateLocation);
         GuaranteeChunkLoaded(candidateLocation);
@@ -3189,6 +3274,24 @@ public class GriefPrevention extends JavaPlugin
         return candidateLocation;
     }
 
+    // similar to ejectPlayer but will eject players into other claims if they are not banned from them
+    public static void ejectPlayerFromBannedClaimAsync(Player who) {
+        ejectPlayerFromBannedClaimAsync(who, who.getLocation());
+    }
+
+    // similar to ejectPlayer but will eject players into other claims if they are not banned from them
+    // the search for a safe location runs in the background, so the player is moved a few ticks later
+    // callers should keep the player from moving further into the claim until then
+    public static void ejectPlayerFromBannedClaimAsync(Player who, Location candidateLocation) {
+        Claim claim = GriefPrevention.instance.dataStore.getClaimAt(candidateLocation, false, false, null);
+        if (claim != null && claim.checkBanned(who)) {
+            ClaimbanEjection.schedule(who, claim, candidateLocation);
+            return;
+        }
+        GuaranteeChunkLoaded(candidateLocation);
+        who.teleport(candidateLocation);
+    }
+
     public static Location ejectionLocationForClaimban(Player who, Location candidateLocation) {
         Claim[] checkClaim = new Claim[] {GriefPrevention.instance.dataStore.getClaimAt(candidateLocation, false, false, null)};
 
@@ -3209,22 +3312,7 @@ public class GriefPrevention extends JavaPlugin
                        return checkClaim[0] == null || !checkClaim[0].checkBanned(who);
                     });
             if (candidateLocation == null) {
-                candidateLocation = who.getBedSpawnLocation();
-                if (candidateLocation != null) {
-                    checkClaim[0] = GriefPrevention.instance.dataStore.getClaimAt(candidateLocation, false, false, null);
-                    if (checkClaim[0] == null || !checkClaim[0].checkBanned(who)) {
-                        return candidateLocation.getBlock().getLocation().add(0.5, 0, 0.5);
-                    }
-                }
-                candidateLocation = Bukkit.getWorlds().get(0).getSpawnLocation();
-                candidateLocation = SafeTeleports.findNearestSafeLocation(
-                        Bukkit.getWorlds().get(0).getSpawnLocation(),
-                        who.getBoundingBox(),
-                        32,
-                        candidateLocation.getWorld().getMinHeight(),
-                        candidateLocation.getWorld().getMaxHeight(),
-                        b -> true);
-                return candidateLocation == null ? Bukkit.getWorlds().get(0).getSpawnLocation() : candidateLocation;
+                return fallbackEjectionLocation(who);
             } else {
                 return candidateLocation;
             }
@@ -3233,9 +3321,29 @@ public class GriefPrevention extends JavaPlugin
         }
     }
 
+    // where to send a claim-banned player when there's no safe location near the claim
+    static Location fallbackEjectionLocation(Player who) {
+        Location candidateLocation = who.getBedSpawnLocation();
+        if (candidateLocation != null) {
+            Claim claim = GriefPrevention.instance.dataStore.getClaimAt(candidateLocation, false, false, null);
+            if (claim == null || !claim.checkBanned(who)) {
+                return candidateLocation.getBlock().getLocation().add(0.5, 0, 0.5);
+            }
+        }
+        candidateLocation = Bukkit.getWorlds().get(0).getSpawnLocation();
+        candidateLocation = SafeTeleports.findNearestSafeLocation(
+                Bukkit.getWorlds().get(0).getSpawnLocation(),
+                who.getBoundingBox(),
+                32,
+                candidateLocation.getWorld().getMinHeight(),
+                candidateLocation.getWorld().getMaxHeight(),
+                b -> true);
+        return candidateLocation == null ? Bukkit.getWorlds().get(0).getSpawnLocation() : candidateLocation;
+    }
+
     //ensures a piece of the managed world is loaded into server memory
     //(generates the chunk if necessary)
-    private static void GuaranteeChunkLoaded(Location location)
+    static void GuaranteeChunkLoaded(Location location)
     {
         Chunk chunk = location.getChunk();
         while (!chunk.isLoaded() || !chunk.load(true)) ;
@@ -3422,11 +3530,12 @@ public class GriefPrevention extends JavaPlugin
         }
     }
 
+    private static final Pattern IP_ADDRESS_PATTERN = Pattern.compile("([0-9]{1,3}\\.){3}[0-9]{1,3}");
+
     public boolean containsBlockedIP(String message)
     {
         message = message.replace("\r\n", "");
-        Pattern ipAddressPattern = Pattern.compile("([0-9]{1,3}\\.){3}[0-9]{1,3}");
-        Matcher matcher = ipAddressPattern.matcher(message);
+        Matcher matcher = IP_ADDRESS_PATTERN.matcher(message);
 
         //if it looks like an IP address
         if (matcher.find())
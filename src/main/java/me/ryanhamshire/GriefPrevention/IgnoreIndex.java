@@ -0,0 +1,52 @@
+package me.ryanhamshire.GriefPrevention;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+//who is ignoring each player, the reverse of every online player's own ignore list
+//lets chat be filtered by looking up the sender once, instead of looking up the data of every recipient
+//safe to use from chat threads
+class IgnoreIndex
+{
+    //ignored player -> players ignoring them
+    private final ConcurrentHashMap<UUID, Set<UUID>> ignorers = new ConcurrentHashMap<>();
+
+    void add(UUID ignorer, UUID ignoree)
+    {
+        //changed inside compute so a set can't be dropped while another thread adds to it
+        this.ignorers.compute(ignoree, (id, ignoring) ->
+        {
+            if (ignoring == null) ignoring = ConcurrentHashMap.newKeySet();
+            ignoring.add(ignorer);
+            return ignoring;
+        });
+    }
+
+    void remove(UUID ignorer, UUID ignoree)
+    {
+        this.ignorers.computeIfPresent(ignoree, (id, ignoring) ->
+        {
+            ignoring.remove(ignorer);
+            return ignoring.isEmpty() ? null : ignoring;
+        });
+    }
+
+    //forgets everyone a player was ignoring, for when their data is unloaded
+    void removeAll(UUID ignorer, Collection<UUID> ignorees)
+    {
+        for (UUID ignoree : ignorees)
+        {
+            this.remove(ignorer, ignoree);
+        }
+    }
+
+    //players ignoring a player, as a live view that must not be modified
+    Set<UUID> getIgnorers(UUID ignoree)
+    {
+        Set<UUID> ignoring = this.ignorers.get(ignoree);
+        return ignoring == null ? Collections.emptySet() : ignoring;
+    }
+}
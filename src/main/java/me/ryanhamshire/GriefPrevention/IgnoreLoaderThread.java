@@ -13,11 +13,13 @@ class IgnoreLoaderThread extends Thread
 {
     private final UUID playerToLoad;
     private final ConcurrentHashMap<UUID, Boolean> destinationMap;
+    private final IgnoreIndex ignoreIndex;
 
-    IgnoreLoaderThread(UUID playerToLoad, ConcurrentHashMap<UUID, Boolean> destinationMap)
+    IgnoreLoaderThread(UUID playerToLoad, ConcurrentHashMap<UUID, Boolean> destinationMap, IgnoreIndex ignoreIndex)
     {
         this.playerToLoad = playerToLoad;
         this.destinationMap = destinationMap;
+        this.ignoreIndex = ignoreIndex;
         this.setPriority(MIN_PRIORITY);
     }
 
@@ -54,6 +56,7 @@ class IgnoreLoaderThread extends Thread
                     {
                         UUID ignoredUUID = UUID.fromString(line);
                         this.destinationMap.put(ignoredUUID, adminIgnore);
+                        this.ignoreIndex.add(this.playerToLoad, ignoredUUID);
                     }
                     catch (IllegalArgumentException e) {}  //if a bad UUID, ignore the line
                 }
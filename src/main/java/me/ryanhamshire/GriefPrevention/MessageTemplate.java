@@ -0,0 +1,119 @@
+package me.ryanhamshire.GriefPrevention;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//an immutable message split into literal text and numbered argument placeholders like {0}, parsed once at load time
+final class MessageTemplate
+{
+    //literal text surrounds each argument, so there is always one more literal than there are arguments
+    private final String[] literals;
+    private final int[] arguments;
+    private final String raw;
+    private final int literalLength;
+
+    private MessageTemplate(@NotNull String raw, @NotNull String[] literals, int @NotNull [] arguments)
+    {
+        this.raw = raw;
+        this.literals = literals;
+        this.arguments = arguments;
+        int length = 0;
+        for (String literal : literals)
+        {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    static @NotNull MessageTemplate compile(@NotNull String message)
+    {
+        List<String> literals = new ArrayList<>();
+        List<Integer> arguments = new ArrayList<>();
+
+        int literalStart = 0;
+        int index = message.indexOf('{');
+        while (index >= 0)
+        {
+            int end = message.indexOf('}', index + 1);
+            if (end < 0) break;
+
+            int argument = parseArgument(message, index + 1, end);
+            if (argument >= 0)
+            {
+                literals.add(message.substring(literalStart, index));
+                arguments.add(argument);
+                literalStart = end + 1;
+                index = message.indexOf('{', literalStart);
+            }
+            else
+            {
+                index = message.indexOf('{', index + 1);
+            }
+        }
+        literals.add(message.substring(literalStart));
+
+        int[] argumentArray = new int[arguments.size()];
+        for (int i = 0; i < argumentArray.length; i++)
+        {
+            argumentArray[i] = arguments.get(i);
+        }
+        return new MessageTemplate(message, literals.toArray(new String[0]), argumentArray);
+    }
+
+    //returns the placeholder's argument number, or -1 if the text is not a plain number
+    private static int parseArgument(@NotNull String message, int start, int end)
+    {
+        int length = end - start;
+        if (length < 1 || length > 4) return -1;
+        //"{01}" was never the same placeholder as "{1}"
+        if (length > 1 && message.charAt(start) == '0') return -1;
+
+        int argument = 0;
+        for (int i = start; i < end; i++)
+        {
+            char c = message.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            argument = argument * 10 + (c - '0');
+        }
+        return argument;
+    }
+
+    @NotNull String render(@NotNull String... args)
+    {
+        if (this.arguments.length == 0) return this.raw;
+
+        int capacity = this.literalLength;
+        for (String arg : args)
+        {
+            if (arg != null) capacity += arg.length();
+        }
+
+        StringBuilder builder = new StringBuilder(capacity);
+        for (int i = 0; i < this.arguments.length; i++)
+        {
+            builder.append(this.literals[i]);
+
+            int argument = this.arguments[i];
+            if (argument < args.length)
+            {
+                builder.append(args[argument]);
+            }
+            else
+            {
+                //leave placeholders without a matching argument as they were
+                builder.append('{').append(argument).append('}');
+            }
+        }
+        builder.append(this.literals[this.arguments.length]);
+        return builder.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.raw;
+    }
+
+}
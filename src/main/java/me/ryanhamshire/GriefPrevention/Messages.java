@@ -185,6 +185,8 @@ public enum Messages
     ClaimsListHeader("Claims:"),
     ContinueBlockMath(" (-{0} blocks)"),
     EndBlockMath(" = {0} blocks left to spend"),
+    ClaimsListPage("Page {0}. For more, use /{1}.", "0: page number; 1: command for the next page"),
+    ClaimsListNoSuchPage("There is no page {0} of claims.", "0: page number"),
     NoClaimDuringPvP("You can't claim lands during PvP combat."),
     UntrustAllOwnerOnly("Only the claim owner can clear all its permissions."),
     ManagersDontUntrustManagers("Only the claim owner can demote a manager."),
@@ -0,0 +1,189 @@
+package me.ryanhamshire.GriefPrevention;
+
+import com.griefprevention.util.IntVector;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+//remembers recent piston movement decisions, so clocks firing the same piston over and over skip the claim lookups
+//a decision is reused only for the same piston, direction and moved blocks, while claims and the piston mode are unchanged
+class PistonVerdictCache
+{
+
+    //how long a decision may be reused for
+    static final long EXPIRY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    //how often expired decisions are dropped and the hit rate is logged
+    private static final long PRUNE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    //beyond this many decisions, stop remembering new ones until the next prune
+    private static final int MAX_ENTRIES = 4096;
+
+    private final Map<Key, Verdict> verdicts = new HashMap<>();
+    private final LongSupplier clock;
+    private long nextPrune;
+    private long hits = 0;
+    private long misses = 0;
+
+    PistonVerdictCache()
+    {
+        this(System::currentTimeMillis);
+    }
+
+    PistonVerdictCache(@NotNull LongSupplier clock)
+    {
+        this.clock = clock;
+        this.nextPrune = clock.getAsLong() + PRUNE_MILLIS;
+    }
+
+    /**
+     * Create the key identifying a piston movement.
+     *
+     * @param piston the piston block
+     * @param direction the direction of movement
+     * @param isRetract whether the piston is retracting
+     * @param blocks the blocks being moved
+     * @return the key
+     */
+    static @NotNull Key key(@NotNull Block piston, @NotNull BlockFace direction, boolean isRetract, @NotNull List<Block> blocks)
+    {
+        long[] moved = new long[blocks.size()];
+        for (int i = 0; i < moved.length; i++)
+        {
+            Block block = blocks.get(i);
+            moved[i] = IntVector.pack(block.getX(), block.getY(), block.getZ());
+        }
+        return new Key(piston.getWorld().getUID(), IntVector.pack(piston.getX(), piston.getY(), piston.getZ()), direction, isRetract, moved);
+    }
+
+    /**
+     * Get a remembered decision.
+     *
+     * @param key the movement
+     * @param claimsModCount the current {@link DataStore#getClaimsModCount()}
+     * @param mode the current piston mode
+     * @return the decision, or null if it must be worked out again
+     */
+    @Nullable Verdict get(@NotNull Key key, int claimsModCount, @NotNull PistonMode mode)
+    {
+        long now = this.clock.getAsLong();
+        if (now >= this.nextPrune) this.prune(now);
+
+        Verdict verdict = this.verdicts.get(key);
+        if (verdict != null && verdict.claimsModCount == claimsModCount && verdict.mode == mode && now < verdict.expires)
+        {
+            this.hits++;
+            return verdict;
+        }
+
+        this.misses++;
+        return null;
+    }
+
+    /**
+     * Remember a decision.
+     *
+     * @param key the movement
+     * @param verdict the decision
+     */
+    void put(@NotNull Key key, @NotNull Verdict verdict)
+    {
+        if (this.verdicts.size() < MAX_ENTRIES || this.verdicts.containsKey(key))
+        {
+            verdict.expires = this.clock.getAsLong() + EXPIRY_MILLIS;
+            this.verdicts.put(key, verdict);
+        }
+    }
+
+    private void prune(long now)
+    {
+        this.nextPrune = now + PRUNE_MILLIS;
+        for (Iterator<Verdict> iterator = this.verdicts.values().iterator(); iterator.hasNext(); )
+        {
+            if (now >= iterator.next().expires) iterator.remove();
+        }
+
+        long total = this.hits + this.misses;
+        if (total > 0)
+        {
+            GriefPrevention.AddLogEntry(String.format("Piston checks: %d of %d (%.1f%%) answered from cache in the last %d minutes.",
+                    this.hits, total, 100.0 * this.hits / total, TimeUnit.MILLISECONDS.toMinutes(PRUNE_MILLIS)), CustomLogEntryTypes.Debug, true);
+        }
+        this.hits = 0;
+        this.misses = 0;
+    }
+
+    //a piston movement, compared by the exact blocks moved
+    static final class Key
+    {
+        private final UUID world;
+        private final long piston;
+        private final BlockFace direction;
+        private final boolean isRetract;
+        private final long[] moved;
+        private final int hash;
+
+        private Key(UUID world, long piston, BlockFace direction, boolean isRetract, long[] moved)
+        {
+            this.world = world;
+            this.piston = piston;
+            this.direction = direction;
+            this.isRetract = isRetract;
+            this.moved = moved;
+
+            int hash = world.hashCode();
+            hash = 31 * hash + Long.hashCode(piston);
+            hash = 31 * hash + direction.hashCode();
+            hash = 31 * hash + Boolean.hashCode(isRetract);
+            this.hash = 31 * hash + Arrays.hashCode(moved);
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            if (this == other) return true;
+            if (!(other instanceof Key key)) return false;
+            return this.hash == key.hash
+                    && this.piston == key.piston
+                    && this.isRetract == key.isRetract
+                    && this.direction == key.direction
+                    && this.world.equals(key.world)
+                    && Arrays.equals(this.moved, key.moved);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+    }
+
+    //the outcome of checking a piston movement
+    static final class Verdict
+    {
+        final boolean cancel;
+        final @Nullable Claim pistonClaim;
+        final @Nullable Claim conflict;
+        private final int claimsModCount;
+        private final PistonMode mode;
+        private long expires;
+
+        Verdict(boolean cancel, @Nullable Claim pistonClaim, @Nullable Claim conflict, int claimsModCount, @NotNull PistonMode mode)
+        {
+            this.cancel = cancel;
+            this.pistonClaim = pistonClaim;
+            this.conflict = conflict;
+            this.claimsModCount = claimsModCount;
+            this.mode = mode;
+        }
+    }
+
+}
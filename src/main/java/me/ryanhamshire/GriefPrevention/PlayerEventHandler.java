@@ -18,6 +18,7 @@
 
 package me.ryanhamshire.GriefPrevention;
 
+import com.griefprevention.protection.ProtectionContext;
 import com.griefprevention.protection.ProtectionHelper;
 import com.griefprevention.util.command.MonitorableCommand;
 import com.griefprevention.util.command.MonitoredCommands;
@@ -75,14 +76,15 @@ class PlayerEventHandler implements Listener
     private final ArrayList<Long> recentLoginLogoutNotifications = new ArrayList<>();
 
     //regex pattern for the "how do i claim land?" scanner
-    private Pattern howToClaimPattern = null;
+    //chat is handled without a lock, so these are replaced whole on reload rather than changed in place
+    private volatile Pattern howToClaimPattern = null;
 
     //matcher for banned words
-    private WordFinder bannedWordFinder;
-    private MonitoredCommands pvpBlockedCommands;
-    private MonitoredCommands accessTrustCommands;
-    private MonitoredCommands chatCommands;
-    private MonitoredCommands whisperCommands;
+    private volatile WordFinder bannedWordFinder;
+    private volatile MonitoredCommands pvpBlockedCommands;
+    private volatile MonitoredCommands accessTrustCommands;
+    private volatile MonitoredCommands chatCommands;
+    private volatile MonitoredCommands whisperCommands;
 
     //spam tracker
     SpamDetector spamDetector = new SpamDetector();
@@ -114,7 +116,7 @@ class PlayerEventHandler implements Listener
 
     //when a player chats, monitor for spam
     @EventHandler(ignoreCancelled = true, priority = EventPriority.LOWEST)
-    synchronized void onPlayerChat(AsyncPlayerChatEvent event)
+    void onPlayerChat(AsyncPlayerChatEvent event)
     {
         Player player = event.getPlayer();
         if (!player.isOnline())
@@ -139,20 +141,16 @@ class PlayerEventHandler implements Listener
         else if (this.dataStore.isSoftMuted(player.getUniqueId()))
         {
             String notificationMessage = "(Muted " + player.getName() + "): " + message;
-            Set<Player> recipientsToKeep = new HashSet<>();
-            for (Player recipient : recipients)
+            recipients.removeIf(recipient ->
             {
-                if (this.dataStore.isSoftMuted(recipient.getUniqueId()))
-                {
-                    recipientsToKeep.add(recipient);
-                }
-                else if (recipient.hasPermission("griefprevention.eavesdrop"))
+                if (this.dataStore.isSoftMuted(recipient.getUniqueId())) return false;
+
+                if (recipient.hasPermission("griefprevention.eavesdrop"))
                 {
                     recipient.sendMessage(ChatColor.GRAY + notificationMessage);
                 }
-            }
-            recipients.clear();
-            recipients.addAll(recipientsToKeep);
+                return true;
+            });
 
             GriefPrevention.AddLogEntry(notificationMessage, CustomLogEntryTypes.MutedChat, false);
         }
@@ -205,28 +203,20 @@ class PlayerEventHandler implements Listener
             //based on ignore lists, remove some of the audience
             if (!player.hasPermission("griefprevention.notignorable"))
             {
-                Set<Player> recipientsToRemove = new HashSet<>();
-                PlayerData playerData = this.dataStore.getPlayerData(player.getUniqueId());
-                for (Player recipient : recipients)
+                //players the sender ignores, and players ignoring the sender
+                Map<UUID, Boolean> ignored = this.dataStore.getPlayerData(player.getUniqueId()).ignoredPlayers;
+                Set<UUID> ignoring = this.dataStore.ignoreIndex.getIgnorers(player.getUniqueId());
+
+                //most players ignore no one, so usually there is nothing to filter
+                if (!ignored.isEmpty() || !ignoring.isEmpty())
                 {
-                    if (!recipient.hasPermission("griefprevention.notignorable"))
+                    recipients.removeIf(recipient ->
                     {
-                        if (playerData.ignoredPlayers.containsKey(recipient.getUniqueId()))
-                        {
-                            recipientsToRemove.add(recipient);
-                        }
-                        else
-                        {
-                            PlayerData targetPlayerData = this.dataStore.getPlayerData(recipient.getUniqueId());
-                            if (targetPlayerData.ignoredPlayers.containsKey(player.getUniqueId()))
-                            {
-                                recipientsToRemove.add(recipient);
-                            }
-                        }
-                    }
+                        UUID recipientID = recipient.getUniqueId();
+                        return (ignored.containsKey(recipientID) || ignoring.contains(recipientID))
+                                && !recipient.hasPermission("griefprevention.notignorable");
+                    });
                 }
-
-                recipients.removeAll(recipientsToRemove);
             }
         }
     }
@@ -236,12 +226,13 @@ class PlayerEventHandler implements Listener
     {
         //FEATURE: automatically educate players about claiming land
         //watching for message format how*claim*, and will send a link to the basics video
-        if (this.howToClaimPattern == null)
+        Pattern howToClaimPattern = this.howToClaimPattern;
+        if (howToClaimPattern == null)
         {
-            this.howToClaimPattern = Pattern.compile(this.dataStore.getMessage(Messages.HowToClaimRegex), Pattern.CASE_INSENSITIVE);
+            this.howToClaimPattern = howToClaimPattern = Pattern.compile(this.dataStore.getMessage(Messages.HowToClaimRegex), Pattern.CASE_INSENSITIVE);
         }
 
-        if (this.howToClaimPattern.matcher(message).matches())
+        if (howToClaimPattern.matcher(message).matches())
         {
             if (instance.creativeRulesApply(player.getWorld()))
             {
@@ -364,17 +355,19 @@ class PlayerEventHandler implements Listener
 
     //when a player uses a slash command...
     @EventHandler(ignoreCancelled = true, priority = EventPriority.LOWEST)
-    synchronized void onPlayerCommandPreprocess(PlayerCommandPreprocessEvent event)
+    void onPlayerCommandPreprocess(PlayerCommandPreprocessEvent event)
     {
-        MonitorableCommand command = new MonitorableCommand(event.getMessage());
-
-        CommandCategory category = this.getCommandCategory(command);
+        String message = event.getMessage();
+        CommandCategory category = this.getCommandCategory(message);
 
         Player player = event.getPlayer();
         PlayerData playerData = null;
 
+        //only whispers need the command split into arguments
+        MonitorableCommand command = category == CommandCategory.Whisper ? new MonitorableCommand(message) : null;
+
         //if a whisper
-        if (category == CommandCategory.Whisper && command.getArgumentCount() > 1)
+        if (command != null && command.getArgumentCount() > 1)
         {
             //determine target player, might be NULL
 
@@ -434,7 +427,7 @@ class PlayerEventHandler implements Listener
         //if in pvp, block any pvp-banned slash commands
         if (playerData == null) playerData = this.dataStore.getPlayerData(event.getPlayer().getUniqueId());
 
-        if ((playerData.inPvpCombat()) && pvpBlockedCommands.isMonitoredCommand(command))
+        if ((playerData.inPvpCombat()) && pvpBlockedCommands.isMonitoredCommand(message))
         {
             event.setCancelled(true);
             GriefPrevention.sendMessage(event.getPlayer(), TextMode.Err, Messages.CommandBannedInPvP);
@@ -471,7 +464,7 @@ class PlayerEventHandler implements Listener
         }
 
         //if requires access trust, check for permission
-        if (accessTrustCommands.isMonitoredCommand(command))
+        if (accessTrustCommands.isMonitoredCommand(message))
         {
             Claim claim = this.dataStore.getClaimAt(player.getLocation(), false, playerData.lastClaim);
             if (claim != null)
@@ -487,14 +480,14 @@ class PlayerEventHandler implements Listener
         }
     }
 
-    private CommandCategory getCommandCategory(MonitorableCommand command)
+    private CommandCategory getCommandCategory(String command)
     {
         if (whisperCommands.isMonitoredCommand(command)) return CommandCategory.Whisper;
         if (chatCommands.isMonitoredCommand(command)) return CommandCategory.Chat;
         return CommandCategory.None;
     }
 
-    static int longestNameLength = 10;
+    static volatile int longestNameLength = 10;
 
     static void makeSocialLogEntry(String name, String message)
     {
@@ -702,7 +695,7 @@ class PlayerEventHandler implements Listener
         }
 
         //create a thread to load ignore information
-        new IgnoreLoaderThread(playerID, playerData.ignoredPlayers).start();
+        new IgnoreLoaderThread(playerID, playerData.ignoredPlayers, this.dataStore.ignoreIndex).start();
 
         //is he stuck in a portal frame?
         if (player.hasMetadata("GP_PORTALRESCUE"))
@@ -746,7 +739,8 @@ class PlayerEventHandler implements Listener
 
         Claim atClaim = dataStore.getClaimAt(player.getLocation(), false, playerData.lastClaim);
         if (checkBannedFromClaim(atClaim, playerData)) {
-            GriefPrevention.ejectPlayerFromBannedClaim(event.getPlayer());
+            //player is held in place by onPlayerMove until a safe spot outside the claim is found
+            GriefPrevention.ejectPlayerFromBannedClaimAsync(event.getPlayer());
             GriefPrevention.sendMessage(player, TextMode.Err, Messages.BannedFromClaim);
         }
     }
@@ -771,7 +765,8 @@ class PlayerEventHandler implements Listener
 
         Claim toClaim = dataStore.getClaimAt(event.getRespawnLocation(), false, playerData.lastClaim);
         if (checkBannedFromClaim(toClaim, playerData)) {
-            GriefPrevention.ejectPlayerFromBannedClaim(event.getPlayer(), event.getRespawnLocation());
+            //player is held in place by onPlayerMove until a safe spot outside the claim is found
+            GriefPrevention.ejectPlayerFromBannedClaimAsync(event.getPlayer(), event.getRespawnLocation());
             GriefPrevention.sendMessage(player, TextMode.Err, Messages.BannedFromClaim);
         }
     }
@@ -868,6 +863,7 @@ class PlayerEventHandler implements Listener
         }
 
         //drop data about this player
+        this.dataStore.ignoreIndex.removeAll(playerID, playerData.ignoredPlayers.keySet());
         this.dataStore.clearCachedPlayerData(playerID);
 
         //send quit message later, but only if the player stays offline
@@ -952,8 +948,9 @@ class PlayerEventHandler implements Listener
         PlayerData playerData = dataStore.getPlayerData(event.getPlayer().getUniqueId());
         Claim toClaim = dataStore.getClaimAt(event.getTo(), true, playerData.lastClaim);
 
+        //don't let banned players through at all, rather than letting them in and searching for a way out
         if (checkBannedFromClaim(toClaim, playerData)) {
-            GriefPrevention.ejectPlayerFromBannedClaim(event.getPlayer(), event.getTo());
+            event.setCancelled(true);
             GriefPrevention.sendMessage(player, TextMode.Err, Messages.BannedFromClaim);
             return;
         }
@@ -986,12 +983,12 @@ class PlayerEventHandler implements Listener
 
         playerData.lastClaim = toClaim;
 
-        if (checkBannedFromClaim(toClaim, playerData)) {
-            GriefPrevention.ejectPlayerFromBannedClaim(event.getPlayer(), event.getTo());
-            GriefPrevention.sendMessage(player, TextMode.Err, Messages.BannedFromClaim);
-        }
-
-        Supplier<String> noAccessReason = toClaim.checkPermission(player, ClaimPermission.Access, event);
+        //don't let banned players through at all, rather than letting them in and searching for a way out
+        Supplier<String> noAccessReason;
+        if (checkBannedFromClaim(toClaim, playerData))
+            noAccessReason = () -> instance.dataStore.getMessage(Messages.BannedFromClaim);
+        else
+            noAccessReason = toClaim.checkPermission(player, ClaimPermission.Access, event);
         if(noAccessReason == null) return;
 
         GriefPrevention.sendMessage(player, TextMode.Err, noAccessReason.get());
@@ -1010,10 +1007,10 @@ class PlayerEventHandler implements Listener
             Claim toClaim = dataStore.getClaimAt(event.getTo(), false, playerData.lastClaim);
             if (checkBannedFromClaim(toClaim, playerData)) {
                 if (toClaim.contains(event.getFrom(), false, false) || toClaim.getBounds().getMaxY() < event.getFrom().getBlockY()) {
-                    GriefPrevention.ejectPlayerFromBannedClaim(event.getPlayer(), event.getFrom());
-                } else {
-                    event.setCancelled(true);
+                    //hold the player where they are until a safe spot outside the claim is found
+                    GriefPrevention.ejectPlayerFromBannedClaimAsync(event.getPlayer(), event.getFrom());
                 }
+                event.setCancelled(true);
                 GriefPrevention.sendMessage(event.getPlayer(), TextMode.Err, Messages.BannedFromClaim);
             }
         }
@@ -1143,7 +1140,7 @@ class PlayerEventHandler implements Listener
         if (instance.config_claims_preventTheft && entity instanceof Vehicle)
         {
             //if the entity is in a claim
-            Claim claim = this.dataStore.getClaimAt(entity.getLocation(), false, null);
+            Claim claim = this.dataStore.getClaimAt(entity, null);
             if (claim != null)
             {
                 //for storage entities, apply container rules (this is a potential theft)
@@ -1164,7 +1161,7 @@ class PlayerEventHandler implements Listener
         if ((instance.config_claims_preventTheft && (entity instanceof Animals || entity instanceof Fish)) || (entity.getType() == EntityType.VILLAGER && instance.config_claims_villagerTradingRequiresTrust))
         {
             //if the entity is in a claim
-            Claim claim = this.dataStore.getClaimAt(entity.getLocation(), false, null);
+            Claim claim = this.dataStore.getClaimAt(entity, null);
             if (claim != null)
             {
                 Supplier<String> override = () ->
@@ -1190,7 +1187,7 @@ class PlayerEventHandler implements Listener
         //if preventing theft, prevent leashing claimed creatures
         if (instance.config_claims_preventTheft && entity instanceof Creature && itemInHand.getType() == Material.LEAD)
         {
-            Claim claim = this.dataStore.getClaimAt(entity.getLocation(), false, playerData.lastClaim);
+            Claim claim = this.dataStore.getClaimAt(entity, playerData.lastClaim);
             if (claim != null)
             {
                 Supplier<String> failureReason = claim.checkPermission(player, ClaimPermission.Inventory, event);
@@ -1210,7 +1207,7 @@ class PlayerEventHandler implements Listener
             if (!instance.claimsEnabledForWorld(entity.getWorld())) return;
 
             Claim cachedClaim = playerData.lastClaim;;
-            Claim claim = this.dataStore.getClaimAt(entity.getLocation(), false, cachedClaim);
+            Claim claim = this.dataStore.getClaimAt(entity, cachedClaim);
 
             // Require a claim to handle.
             if (claim == null) return;
@@ -1505,6 +1502,8 @@ class PlayerEventHandler implements Listener
             clickedBlockType = Material.AIR;
         }
 
+        //every check below is about the same player and usually the same block, so share the lookups
+        ProtectionContext context = new ProtectionContext(event);
         PlayerData playerData = null;
 
         //Turtle eggs
@@ -1512,13 +1511,13 @@ class PlayerEventHandler implements Listener
         {
             if (clickedBlockType != Material.TURTLE_EGG)
                 return;
-            playerData = this.dataStore.getPlayerData(player.getUniqueId());
-            Claim claim = this.dataStore.getClaimAt(clickedBlock.getLocation(), false, playerData.lastClaim);
+            playerData = context.getPlayerData(player);
+            Claim claim = context.getClaimAt(clickedBlock.getLocation(), playerData.lastClaim);
             if (claim != null)
             {
                 playerData.lastClaim = claim;
 
-                Supplier<String> noAccessReason = claim.checkPermission(player, ClaimPermission.Build, event);
+                Supplier<String> noAccessReason = context.checkPermission(player, claim, ClaimPermission.Build);
                 if (noAccessReason != null)
                 {
                     event.setCancelled(true);
@@ -1528,7 +1527,7 @@ class PlayerEventHandler implements Listener
             return;
         }
 
-        if (playerData == null) playerData = this.dataStore.getPlayerData(player.getUniqueId());
+        if (playerData == null) playerData = context.getPlayerData(player);
 
         if (playerData.getVisibleBoundaries() instanceof EntityBlockBoundaryVisualization<?> vis && event.getClickedBlock() != null) {
             FakeEntityElement element = vis.elementByLocation(event.getClickedBlock().getLocation());
@@ -1572,7 +1571,7 @@ class PlayerEventHandler implements Listener
                                 clickedBlockType == Material.DECORATED_POT
                         )))
         {
-            if (playerData == null) playerData = this.dataStore.getPlayerData(player.getUniqueId());
+            if (playerData == null) playerData = context.getPlayerData(player);
 
             //block container use during pvp combat, same reason
             if (playerData.inPvpCombat())
@@ -1583,12 +1582,12 @@ class PlayerEventHandler implements Listener
             }
 
             //otherwise check permissions for the claim the player is in
-            Claim claim = this.dataStore.getClaimAt(clickedBlock.getLocation(), false, playerData.lastClaim);
+            Claim claim = context.getClaimAt(clickedBlock.getLocation(), playerData.lastClaim);
             if (claim != null)
             {
                 playerData.lastClaim = claim;
 
-                Supplier<String> noContainersReason = claim.checkPermission(player, ClaimPermission.Inventory, event);
+                Supplier<String> noContainersReason = context.checkPermission(player, claim, ClaimPermission.Inventory);
                 if (noContainersReason != null)
                 {
                     event.setCancelled(true);
@@ -1619,13 +1618,13 @@ class PlayerEventHandler implements Listener
 
                 instance.config_claims_lockFenceGates && Tag.FENCE_GATES.isTagged(clickedBlockType)))
         {
-            if (playerData == null) playerData = this.dataStore.getPlayerData(player.getUniqueId());
-            Claim claim = this.dataStore.getClaimAt(clickedBlock.getLocation(), false, playerData.lastClaim);
+            if (playerData == null) playerData = context.getPlayerData(player);
+            Claim claim = context.getClaimAt(clickedBlock.getLocation(), playerData.lastClaim);
             if (claim != null)
             {
                 playerData.lastClaim = claim;
 
-                Supplier<String> noAccessReason = claim.checkPermission(player, ClaimPermission.Access, event);
+                Supplier<String> noAccessReason = context.checkPermission(player, claim, ClaimPermission.Access);
                 if (noAccessReason != null)
                 {
                     event.setCancelled(true);
@@ -1638,13 +1637,13 @@ class PlayerEventHandler implements Listener
         //otherwise apply rules for buttons and switches
         else if (clickedBlock != null && instance.config_claims_preventButtonsSwitches && (Tag.BUTTONS.isTagged(clickedBlockType) || clickedBlockType == Material.LEVER))
         {
-            if (playerData == null) playerData = this.dataStore.getPlayerData(player.getUniqueId());
-            Claim claim = this.dataStore.getClaimAt(clickedBlock.getLocation(), false, playerData.lastClaim);
+            if (playerData == null) playerData = context.getPlayerData(player);
+            Claim claim = context.getClaimAt(clickedBlock.getLocation(), playerData.lastClaim);
             if (claim != null)
             {
                 playerData.lastClaim = claim;
 
-                Supplier<String> noAccessReason = claim.checkPermission(player, ClaimPermission.Access, event);
+                Supplier<String> noAccessReason = context.checkPermission(player, claim, ClaimPermission.Access);
                 if (noAccessReason != null)
                 {
                     event.setCancelled(true);
@@ -1657,13 +1656,13 @@ class PlayerEventHandler implements Listener
         //otherwise apply rule for cake
         else if (clickedBlock != null && instance.config_claims_preventTheft && (clickedBlockType == Material.CAKE || Tag.CANDLE_CAKES.isTagged(clickedBlockType)))
         {
-            if (playerData == null) playerData = this.dataStore.getPlayerData(player.getUniqueId());
-            Claim claim = this.dataStore.getClaimAt(clickedBlock.getLocation(), false, playerData.lastClaim);
+            if (playerData == null) playerData = context.getPlayerData(player);
+            Claim claim = context.getClaimAt(clickedBlock.getLocation(), playerData.lastClaim);
             if (claim != null)
             {
                 playerData.lastClaim = claim;
 
-                Supplier<String> noContainerReason = claim.checkPermission(player, ClaimPermission.Access, event);
+                Supplier<String> noContainerReason = context.checkPermission(player, claim, ClaimPermission.Access);
                 if (noContainerReason != null)
                 {
                     event.setCancelled(true);
@@ -1686,11 +1685,11 @@ class PlayerEventHandler implements Listener
                                 Tag.CANDLES.isTagged(clickedBlockType)
                 ))
         {
-            if (playerData == null) playerData = this.dataStore.getPlayerData(player.getUniqueId());
-            Claim claim = this.dataStore.getClaimAt(clickedBlock.getLocation(), false, playerData.lastClaim);
+            if (playerData == null) playerData = context.getPlayerData(player);
+            Claim claim = context.getClaimAt(clickedBlock.getLocation(), playerData.lastClaim);
             if (claim != null)
             {
-                Supplier<String> noBuildReason = claim.checkPermission(player, ClaimPermission.Build, event);
+                Supplier<String> noBuildReason = context.checkPermission(player, claim, ClaimPermission.Build);
                 if (noBuildReason != null)
                 {
                     event.setCancelled(true);
@@ -1723,7 +1722,7 @@ class PlayerEventHandler implements Listener
                     || materialInHand == Material.HONEYCOMB
                     || GPTags.DYES.isTagged(materialInHand)))
             {
-                Supplier<String> noBuildReason = ProtectionHelper.checkPermission(player, event.getClickedBlock().getLocation(), ClaimPermission.Build, event);
+                Supplier<String> noBuildReason = context.checkPermission(player, clickedBlock.getLocation(), ClaimPermission.Build);
                 if (noBuildReason != null)
                 {
                     GriefPrevention.sendMessage(player, TextMode.Err, noBuildReason.get());
@@ -1734,11 +1733,11 @@ class PlayerEventHandler implements Listener
             }
             else if (clickedBlock != null && Tag.ITEMS_BOATS.isTagged(materialInHand))
             {
-                if (playerData == null) playerData = this.dataStore.getPlayerData(player.getUniqueId());
-                Claim claim = this.dataStore.getClaimAt(clickedBlock.getLocation(), false, playerData.lastClaim);
+                if (playerData == null) playerData = context.getPlayerData(player);
+                Claim claim = context.getClaimAt(clickedBlock.getLocation(), playerData.lastClaim);
                 if (claim != null)
                 {
-                    Supplier<String> reason = claim.checkPermission(player, ClaimPermission.Inventory, event);
+                    Supplier<String> reason = context.checkPermission(player, claim, ClaimPermission.Inventory);
                     if (reason != null)
                     {
                         GriefPrevention.sendMessage(player, TextMode.Err, reason.get());
@@ -1758,11 +1757,11 @@ class PlayerEventHandler implements Listener
                             materialInHand == Material.HOPPER_MINECART) &&
                     !instance.creativeRulesApply(clickedBlock.getWorld()))
             {
-                if (playerData == null) playerData = this.dataStore.getPlayerData(player.getUniqueId());
-                Claim claim = this.dataStore.getClaimAt(clickedBlock.getLocation(), false, playerData.lastClaim);
+                if (playerData == null) playerData = context.getPlayerData(player);
+                Claim claim = context.getClaimAt(clickedBlock.getLocation(), playerData.lastClaim);
                 if (claim != null)
                 {
-                    Supplier<String> reason = claim.checkPermission(player, ClaimPermission.Inventory, event);
+                    Supplier<String> reason = context.checkPermission(player, claim, ClaimPermission.Inventory);
                     if (reason != null)
                     {
                         GriefPrevention.sendMessage(player, TextMode.Err, reason.get());
@@ -1784,7 +1783,7 @@ class PlayerEventHandler implements Listener
                 // Set investigation tool on cooldown to prevent spamming.
                 player.setCooldown(instance.config_claims_investigationTool, 1);
 
-                playerData = this.dataStore.getPlayerData(player.getUniqueId());
+                playerData = context.getPlayerData(player);
 
                 //if holding shift (sneaking), show all claims in area
                 if (player.isSneaking() && player.hasPermission("griefprevention.visualizenearbyclaims"))
@@ -1957,7 +1956,7 @@ class PlayerEventHandler implements Listener
                 return;
             }
 
-            playerData = this.dataStore.getPlayerData(player.getUniqueId());
+            playerData = context.getPlayerData(player);
 
             //if he's resizing a claim and that claim hasn't been deleted since he started resizing it
             if (playerData.claimResizing != null && playerData.claimResizing.inDataStore)
@@ -3,45 +3,45 @@ package me.ryanhamshire.GriefPrevention;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 
+//safe to use from many chat threads at once without a shared lock
+//each chatter's data is only locked while analyzing that chatter's own messages, and the shared last message is swapped atomically
 class SpamDetector
 {
-    //last chat message shown and its timestamp, regardless of who sent it
-    private String lastChatMessage = "";
-    private long lastChatMessageTimestamp = 0;
-
-    //number of identical chat messages in a row
-    private int duplicateMessageCount = 0;
+    //last chat message shown and its timestamp regardless of who sent it, and the number of identical chat messages in a row
+    private final AtomicReference<LastChatMessage> lastChatMessage = new AtomicReference<>(new LastChatMessage("", 0, 0));
 
     //data for individual chatters
     ConcurrentHashMap<UUID, ChatterData> dataStore = new ConcurrentHashMap<>();
 
     private ChatterData getChatterData(UUID chatterID)
     {
-        ChatterData data = this.dataStore.get(chatterID);
-        if (data == null)
+        return this.dataStore.computeIfAbsent(chatterID, id -> new ChatterData());
+    }
+
+    SpamAnalysisResult AnalyzeMessage(UUID chatterID, String message, long timestamp)
+    {
+        ChatterData chatterData = this.getChatterData(chatterID);
+        synchronized (chatterData)
         {
-            data = new ChatterData();
-            this.dataStore.put(chatterID, data);
+            return this.analyzeMessage(chatterData, message, timestamp);
         }
-
-        return data;
     }
 
-    SpamAnalysisResult AnalyzeMessage(UUID chatterID, String message, long timestamp)
+    private SpamAnalysisResult analyzeMessage(ChatterData chatterData, String message, long timestamp)
     {
         SpamAnalysisResult result = new SpamAnalysisResult();
         result.finalMessage = message;
 
         //remedy any CAPS SPAM, exception for very short messages which could be emoticons like =D or XD
-        if (message.length() > 4 && this.stringsAreSimilar(message.toUpperCase(), message))
+        if (message.length() > 4 && isMostlyUpperCase(message))
         {
             message = message.toLowerCase();
             result.finalMessage = message;
         }
 
         boolean spam = false;
-        ChatterData chatterData = this.getChatterData(chatterID);
 
         //mute if total volume of text from this player is too high
         if (message.length() > 50 && chatterData.getTotalRecentLength(timestamp) > 200)
@@ -52,18 +52,13 @@ class SpamDetector
         }
 
         //always mute an exact match to the last chat message
-        if (result.finalMessage.equals(this.lastChatMessage) && timestamp - this.lastChatMessageTimestamp < 2000)
+        int duplicateMessageCount = this.recordChatMessage(message, timestamp);
+        if (duplicateMessageCount > 0)
         {
-            chatterData.spamLevel += ++this.duplicateMessageCount;
+            chatterData.spamLevel += duplicateMessageCount;
             spam = true;
             result.muteReason = "repeat message";
         }
-        else
-        {
-            this.lastChatMessage = message;
-            this.lastChatMessageTimestamp = timestamp;
-            this.duplicateMessageCount = 0;
-        }
 
         //check message content and timing      
         long millisecondsSinceLastMessage = timestamp - chatterData.lastMessageTimestamp;
@@ -85,7 +80,7 @@ class SpamDetector
         }
 
         //if it's very similar to the last message from the same player and within 10 seconds of that message
-        if (result.muteReason == null && millisecondsSinceLastMessage < 10000 && this.stringsAreSimilar(message.toLowerCase(), chatterData.lastMessage.toLowerCase()))
+        if (result.muteReason == null && millisecondsSinceLastMessage < 10000 && isSimilarIgnoringCase(message, chatterData.lastMessage))
         {
             chatterData.spamLevel++;
             spam = true;
@@ -164,8 +159,158 @@ class SpamDetector
         return result;
     }
 
+    //records a message as the last chat message, or counts it as a duplicate if it repeats the last one too soon
+    //returns the number of duplicates in a row, or 0 if the message was not a duplicate
+    private int recordChatMessage(String message, long timestamp)
+    {
+        while (true)
+        {
+            LastChatMessage last = this.lastChatMessage.get();
+            LastChatMessage next = message.equals(last.message()) && timestamp - last.timestamp() < 2000
+                    ? new LastChatMessage(last.message(), last.timestamp(), last.duplicateCount() + 1)
+                    : new LastChatMessage(message, timestamp, 0);
+
+            if (this.lastChatMessage.compareAndSet(last, next)) return next.duplicateCount();
+        }
+    }
+
+    private record LastChatMessage(String message, long timestamp, int duplicateCount) {}
+
+    //how characters are compared by stringsAreSimilar, so messages needn't be copied in another case first
+    private enum CharacterCase
+    {
+        AS_IS
+        {
+            @Override
+            char convert(char character)
+            {
+                return character;
+            }
+
+            @Override
+            String convert(String string)
+            {
+                return string;
+            }
+        },
+        UPPER
+        {
+            @Override
+            char convert(char character)
+            {
+                return Character.toUpperCase(character);
+            }
+
+            @Override
+            String convert(String string)
+            {
+                return string.toUpperCase();
+            }
+        },
+        LOWER
+        {
+            @Override
+            char convert(char character)
+            {
+                return Character.toLowerCase(character);
+            }
+
+            @Override
+            String convert(String string)
+            {
+                return string.toLowerCase();
+            }
+        };
+
+        abstract char convert(char character);
+
+        abstract String convert(String string);
+    }
+
+    //whether a message is mostly capital letters, meaning it's similar to itself in upper case
+    static boolean isMostlyUpperCase(String message)
+    {
+        return stringsAreSimilar(message, CharacterCase.UPPER, message, CharacterCase.AS_IS);
+    }
+
+    //whether two messages are similar once both are in lower case
+    static boolean isSimilarIgnoringCase(String message, String lastMessage)
+    {
+        return stringsAreSimilar(message, CharacterCase.LOWER, lastMessage, CharacterCase.LOWER);
+    }
+
     //if two strings are 75% identical, they're too close to follow each other in the chat
-    private boolean stringsAreSimilar(String message, String lastMessage)
+    //each string is compared as though it had been converted to the given case, without making the converted copy
+    //case conversion in place ignores the server's locale, so under a Turkish locale i and I still count as letters
+    private static boolean stringsAreSimilar(String message, CharacterCase messageCase, String lastMessage, CharacterCase lastMessageCase)
+    {
+        //converting a character on its own only matches converting the whole string for ASCII
+        //other text is converted up front, since a character may become several, like ß becoming SS
+        if (!isAscii(message) || !isAscii(lastMessage))
+        {
+            return convertedStringsAreSimilar(messageCase.convert(message), lastMessageCase.convert(lastMessage));
+        }
+
+        //ignore differences in only punctuation and whitespace
+        int messageLength = countLetters(message, messageCase);
+        int lastMessageLength = countLetters(lastMessage, lastMessageCase);
+
+        //determine which is shorter
+        String shorterString, longerString;
+        CharacterCase shorterCase, longerCase;
+        int shorterLength, longerLength;
+        if (lastMessageLength < messageLength)
+        {
+            shorterString = lastMessage;
+            shorterCase = lastMessageCase;
+            shorterLength = lastMessageLength;
+            longerString = message;
+            longerCase = messageCase;
+            longerLength = messageLength;
+        }
+        else
+        {
+            shorterString = message;
+            shorterCase = messageCase;
+            shorterLength = messageLength;
+            longerString = lastMessage;
+            longerCase = lastMessageCase;
+            longerLength = lastMessageLength;
+        }
+
+        //set similarity tolerance
+        int maxIdenticalCharacters = longerLength - longerLength / 4;
+
+        //short strings must match exactly
+        boolean exact = shorterLength <= 5;
+        if (exact && shorterLength != longerLength) return false;
+
+        //trivial check on length
+        if (!exact && shorterLength < maxIdenticalCharacters) return false;
+
+        //compare forward, letter by letter
+        int identicalCount = 0;
+        int shorterIndex = nextLetter(shorterString, shorterCase, 0);
+        int longerIndex = nextLetter(longerString, longerCase, 0);
+        for (int i = 0; i < shorterLength; i++)
+        {
+            if (shorterCase.convert(shorterString.charAt(shorterIndex)) == longerCase.convert(longerString.charAt(longerIndex)))
+            {
+                identicalCount++;
+            }
+            else if (exact) return false;
+
+            if (!exact && identicalCount > maxIdenticalCharacters) return true;
+
+            shorterIndex = nextLetter(shorterString, shorterCase, shorterIndex + 1);
+            longerIndex = nextLetter(longerString, longerCase, longerIndex + 1);
+        }
+
+        return exact;
+    }
+
+    //same comparison on strings already converted to the right case
+    private static boolean convertedStringsAreSimilar(String message, String lastMessage)
     {
         //ignore differences in only punctuation and whitespace
         message = message.replaceAll("[^\\p{Alpha}]", "");
@@ -194,23 +339,46 @@ class SpamDetector
 
         //compare forward
         int identicalCount = 0;
-        int i;
-        for (i = 0; i < shorterString.length(); i++)
+        for (int i = 0; i < shorterString.length(); i++)
         {
             if (shorterString.charAt(i) == longerString.charAt(i)) identicalCount++;
             if (identicalCount > maxIdenticalCharacters) return true;
         }
 
-        //compare backward
-        int j;
-        for (j = 0; j < shorterString.length() - i; j++)
+        return false;
+    }
+
+    private static boolean isAscii(String string)
+    {
+        for (int i = 0; i < string.length(); i++)
         {
-            if (shorterString.charAt(shorterString.length() - j - 1) == longerString.charAt(longerString.length() - j - 1))
-                identicalCount++;
-            if (identicalCount > maxIdenticalCharacters) return true;
+            if (string.charAt(i) > 0x7F) return false;
         }
+        return true;
+    }
 
-        return false;
+    //number of letters in a string once converted to a case
+    private static int countLetters(String string, CharacterCase characterCase)
+    {
+        int count = 0;
+        for (int i = 0; i < string.length(); i++)
+        {
+            if (isLetter(characterCase.convert(string.charAt(i)))) count++;
+        }
+        return count;
+    }
+
+    //index of the first letter at or after an index once converted to a case, or the string length if there is none
+    private static int nextLetter(String string, CharacterCase characterCase, int from)
+    {
+        while (from < string.length() && !isLetter(characterCase.convert(string.charAt(from)))) from++;
+        return from;
+    }
+
+    //same as \p{Alpha} in regular expressions
+    private static boolean isLetter(char character)
+    {
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z');
     }
 }
 
@@ -0,0 +1,211 @@
+package me.ryanhamshire.GriefPrevention;
+
+import com.griefprevention.util.IntVector;
+import me.ryanhamshire.GriefPrevention.util.BoundingBox;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.World.Environment;
+import org.bukkit.block.Block;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//finds surface fluids in a claim by scanning chunk snapshots off the main thread
+//snapshots are captured and fluids are removed on the main thread in small slices, so claim size doesn't matter
+class SurfaceFluidCleanupTask
+{
+
+    // Maximum time to spend on the main thread per tick capturing snapshots or removing fluids.
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(2);
+
+    /**
+     * Find and remove all water and lava above sea level in a claim.
+     *
+     * <p>Only chunks that are loaded are cleaned up. Unloaded chunks are skipped rather than loaded or generated.</p>
+     *
+     * @param claim the claim to clean up
+     * @param exclusionClaim a claim whose area should be left untouched, if any
+     */
+    static void scheduleRemoval(@NotNull Claim claim, @Nullable Claim exclusionClaim)
+    {
+        World world = claim.getWorld();
+        BoundingBox exclusion = null;
+        if (exclusionClaim != null && world.equals(exclusionClaim.getWorld()))
+        {
+            exclusion = exclusionClaim.getBounds().clone();
+        }
+
+        new SnapshotCapture(new SurfaceFluidCleanupTask(world, claim.getBounds().clone(), exclusion))
+                .runTaskTimer(GriefPrevention.instance, 0L, 1L);
+    }
+
+    private final World world;
+    private final BoundingBox bounds;
+    private final @Nullable BoundingBox exclusion;
+    private final int minY;
+    private final int maxY;
+
+    private SurfaceFluidCleanupTask(
+            @NotNull World world,
+            @NotNull BoundingBox bounds,
+            @Nullable BoundingBox exclusion)
+    {
+        this.world = world;
+        this.bounds = bounds;
+        this.exclusion = exclusion;
+
+        int seaLevel = 0;  //clean up all fluids in the end
+
+        //respect sea level in normal worlds
+        if (world.getEnvironment() == Environment.NORMAL)
+            seaLevel = GriefPrevention.instance.getSeaLevel(world);
+
+        this.minY = Math.max(world.getMinHeight(), seaLevel - 1);
+        this.maxY = world.getMaxHeight() - 1;
+    }
+
+    //runs asynchronously, returns packed positions of all fluid blocks found
+    private long @NotNull [] findFluids(@NotNull List<ChunkSnapshot> snapshots)
+    {
+        long[] positions = new long[16];
+        int size = 0;
+
+        for (ChunkSnapshot snapshot : snapshots)
+        {
+            int chunkMinX = snapshot.getX() << 4;
+            int chunkMinZ = snapshot.getZ() << 4;
+            int startX = Math.max(this.bounds.getMinX(), chunkMinX);
+            int endX = Math.min(this.bounds.getMaxX(), chunkMinX + 15);
+            int startZ = Math.max(this.bounds.getMinZ(), chunkMinZ);
+            int endZ = Math.min(this.bounds.getMaxZ(), chunkMinZ + 15);
+
+            for (int x = startX; x <= endX; x++)
+            {
+                for (int z = startZ; z <= endZ; z++)
+                {
+                    //dodge the exclusion claim
+                    if (this.exclusion != null && this.exclusion.contains2d(x, z)) continue;
+
+                    // Nothing but air is above the highest block in the column.
+                    int top = Math.min(this.maxY, snapshot.getHighestBlockYAt(x - chunkMinX, z - chunkMinZ));
+                    for (int y = this.minY; y <= top; y++)
+                    {
+                        Material type = snapshot.getBlockType(x - chunkMinX, y, z - chunkMinZ);
+                        if (type != Material.WATER && type != Material.LAVA) continue;
+
+                        if (size == positions.length)
+                        {
+                            positions = Arrays.copyOf(positions, size * 2);
+                        }
+                        positions[size++] = IntVector.pack(x, y, z);
+                    }
+                }
+            }
+        }
+
+        return Arrays.copyOf(positions, size);
+    }
+
+    //captures snapshots of the loaded chunks in the claim a few at a time
+    //each tick's snapshots are scanned asynchronously as one batch, so only a batch's snapshots are held at once
+    private static class SnapshotCapture extends BukkitRunnable
+    {
+        private final SurfaceFluidCleanupTask task;
+        private final int maxChunkX;
+        private final int minChunkZ;
+        private final int maxChunkZ;
+        private int chunkX;
+        private int chunkZ;
+
+        private SnapshotCapture(@NotNull SurfaceFluidCleanupTask task)
+        {
+            this.task = task;
+            this.chunkX = task.bounds.getMinX() >> 4;
+            this.maxChunkX = task.bounds.getMaxX() >> 4;
+            this.minChunkZ = task.bounds.getMinZ() >> 4;
+            this.maxChunkZ = task.bounds.getMaxZ() >> 4;
+            this.chunkZ = this.minChunkZ;
+        }
+
+        @Override
+        public void run()
+        {
+            long deadline = System.nanoTime() + NANOS_PER_TICK;
+            World world = this.task.world;
+            List<ChunkSnapshot> batch = new ArrayList<>();
+            while (this.chunkX <= this.maxChunkX && System.nanoTime() < deadline)
+            {
+                // Never load or generate chunks just to clean them up.
+                if (world.isChunkLoaded(this.chunkX, this.chunkZ))
+                {
+                    // Snapshot includes the highest block map so air above the surface can be skipped.
+                    batch.add(world.getChunkAt(this.chunkX, this.chunkZ).getChunkSnapshot(true, false, false));
+                }
+
+                if (++this.chunkZ > this.maxChunkZ)
+                {
+                    this.chunkZ = this.minChunkZ;
+                    this.chunkX++;
+                }
+            }
+
+            if (this.chunkX > this.maxChunkX) this.cancel();
+            if (batch.isEmpty()) return;
+
+            SurfaceFluidCleanupTask task = this.task;
+            Bukkit.getScheduler().runTaskAsynchronously(GriefPrevention.instance, () ->
+            {
+                long[] fluids = task.findFluids(batch);
+                if (fluids.length > 0)
+                {
+                    Bukkit.getScheduler().runTask(GriefPrevention.instance, () ->
+                            new FluidRemoval(world, fluids).runTaskTimer(GriefPrevention.instance, 0L, 1L));
+                }
+            });
+        }
+    }
+
+    //runs in the main execution thread, where it can safely change blocks
+    private static class FluidRemoval extends BukkitRunnable
+    {
+        private final World world;
+        private final long[] positions;
+        private int index = 0;
+
+        private FluidRemoval(@NotNull World world, long @NotNull [] positions)
+        {
+            this.world = world;
+            this.positions = positions;
+        }
+
+        @Override
+        public void run()
+        {
+            long deadline = System.nanoTime() + NANOS_PER_TICK;
+            while (this.index < this.positions.length)
+            {
+                long position = this.positions[this.index++];
+                Block block = this.world.getBlockAt(IntVector.unpackX(position), IntVector.unpackY(position), IntVector.unpackZ(position));
+
+                // The world may have changed since the snapshot was taken.
+                Material type = block.getType();
+                if (type == Material.WATER || type == Material.LAVA)
+                {
+                    block.setType(Material.AIR);
+                }
+
+                if (System.nanoTime() >= deadline) return;
+            }
+
+            this.cancel();
+        }
+    }
+
+}
@@ -1,43 +1,186 @@
 package me.ryanhamshire.GriefPrevention;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TreeMap;
 
+//finds whole words from a list in text, ignoring case
+//all words are searched for at once with an Aho-Corasick automaton built when the list is loaded, so checking a message
+//takes time proportional to its length no matter how many words there are
+//a word only counts if it is not directly preceded or followed by a letter, digit or underscore
 class WordFinder
 {
-    private Pattern pattern;
+    //transitions out of each state, as sorted characters and the states they lead to
+    private final char[][] transitionChars;
+    private final int[][] transitionStates;
+    //the state to fall back to when no transition matches
+    private final int[] failure;
+    //the lengths of all words ending at each state, including words that are suffixes of others
+    private final int[][] matchLengths;
 
     WordFinder(List<String> wordsToFind)
     {
-        if (wordsToFind.size() == 0) return;
+        //build the trie of folded words
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<int[]> lengths = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        lengths.add(new int[0]);
 
-        StringBuilder patternBuilder = new StringBuilder();
         for (String word : wordsToFind)
         {
-            if (!word.isEmpty() && !word.trim().isEmpty())
+            if (word.isEmpty() || word.trim().isEmpty()) continue;
+
+            int state = 0;
+            for (int i = 0; i < word.length(); i++)
+            {
+                char character = fold(word.charAt(i));
+                Integer next = trie.get(state).get(character);
+                if (next == null)
+                {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    lengths.add(new int[0]);
+                    trie.get(state).put(character, next);
+                }
+                state = next;
+            }
+
+            int[] ending = lengths.get(state);
+            if (!contains(ending, word.length()))
             {
-                patternBuilder.append("|(([^\\w]|^)").append(Pattern.quote(word)).append("([^\\w]|$))");
+                ending = Arrays.copyOf(ending, ending.length + 1);
+                ending[ending.length - 1] = word.length();
+                lengths.set(state, ending);
             }
         }
 
-        String patternString = patternBuilder.toString();
-        if (patternString.length() > 1)
+        int stateCount = trie.size();
+        this.transitionChars = new char[stateCount][];
+        this.transitionStates = new int[stateCount][];
+        this.failure = new int[stateCount];
+        this.matchLengths = new int[stateCount][];
+
+        for (int state = 0; state < stateCount; state++)
         {
-            //trim extraneous leading pipe (|)
-            patternString = patternString.substring(1);
+            TreeMap<Character, Integer> transitions = trie.get(state);
+            char[] characters = new char[transitions.size()];
+            int[] states = new int[transitions.size()];
+            int i = 0;
+            for (var transition : transitions.entrySet())
+            {
+                characters[i] = transition.getKey();
+                states[i++] = transition.getValue();
+            }
+            this.transitionChars[state] = characters;
+            this.transitionStates[state] = states;
         }
-        // No words are defined, match nothing.
-        else return;
 
-        this.pattern = Pattern.compile(patternString, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        //link each state to the longest proper suffix that is also in the trie, breadth first so shorter states are done first
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        this.matchLengths[0] = lengths.get(0);
+        for (int child : this.transitionStates[0])
+        {
+            this.failure[child] = 0;
+            this.matchLengths[child] = lengths.get(child);
+            queue[tail++] = child;
+        }
+
+        while (head < tail)
+        {
+            int state = queue[head++];
+            char[] characters = this.transitionChars[state];
+            int[] children = this.transitionStates[state];
+            for (int i = 0; i < characters.length; i++)
+            {
+                int child = children[i];
+                int fallback = this.failure[state];
+                int next;
+                while ((next = this.step(fallback, characters[i])) < 0 && fallback != 0)
+                {
+                    fallback = this.failure[fallback];
+                }
+                this.failure[child] = Math.max(next, 0);
+
+                //words ending at the fallback state also end here
+                this.matchLengths[child] = merge(lengths.get(child), this.matchLengths[this.failure[child]]);
+                queue[tail++] = child;
+            }
+        }
     }
 
     boolean hasMatch(String input)
     {
-        if (this.pattern == null) return false;
+        int state = 0;
+        for (int i = 0; i < input.length(); i++)
+        {
+            char character = fold(input.charAt(i));
+            int next;
+            while ((next = this.step(state, character)) < 0 && state != 0)
+            {
+                state = this.failure[state];
+            }
+            state = Math.max(next, 0);
+
+            int[] lengths = this.matchLengths[state];
+            if (lengths.length == 0) continue;
 
-        Matcher matcher = this.pattern.matcher(input);
-        return matcher.find();
+            //only whole words count
+            if (i + 1 < input.length() && isWordCharacter(input.charAt(i + 1))) continue;
+            for (int length : lengths)
+            {
+                int start = i + 1 - length;
+                if (start == 0 || !isWordCharacter(input.charAt(start - 1))) return true;
+            }
+        }
+
+        return false;
+    }
+
+    //the state reached from a state by a character, or -1 if there is no such transition
+    private int step(int state, char character)
+    {
+        int index = Arrays.binarySearch(this.transitionChars[state], character);
+        return index < 0 ? -1 : this.transitionStates[state][index];
+    }
+
+    //same as case-insensitive comparison in regular expressions: characters match if their upper or lower cases do
+    private static char fold(char character)
+    {
+        return Character.toLowerCase(Character.toUpperCase(character));
+    }
+
+    //same as \w in regular expressions
+    private static boolean isWordCharacter(char character)
+    {
+        return character >= 'a' && character <= 'z'
+                || character >= 'A' && character <= 'Z'
+                || character >= '0' && character <= '9'
+                || character == '_';
+    }
+
+    private static boolean contains(int[] values, int value)
+    {
+        for (int existing : values)
+        {
+            if (existing == value) return true;
+        }
+        return false;
+    }
+
+    private static int[] merge(int[] first, int[] second)
+    {
+        if (second.length == 0) return first;
+        if (first.length == 0) return second;
+
+        int[] merged = Arrays.copyOf(first, first.length + second.length);
+        int size = first.length;
+        for (int value : second)
+        {
+            if (!contains(first, value)) merged[size++] = value;
+        }
+        return Arrays.copyOf(merged, size);
     }
 }
@@ -0,0 +1,42 @@
+package me.ryanhamshire.GriefPrevention.events;
+
+import me.ryanhamshire.GriefPrevention.Claim;
+import org.bukkit.event.HandlerList;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+
+/**
+ * An {@link org.bukkit.event.Event Event} called once when a batch of {@link Claim Claims} is deleted together,
+ * for example when all claims in a world are removed.
+ *
+ * <p>The claims have already been removed when this event is called.
+ */
+public class ClaimsDeletedEvent extends MultiClaimEvent
+{
+
+    /**
+     * Construct a new {@code ClaimsDeletedEvent}.
+     *
+     * @param claims the {@link Claim Claims} deleted
+     */
+    public ClaimsDeletedEvent(@NotNull Collection<Claim> claims)
+    {
+        super(claims);
+    }
+
+    // Listenable event requirements
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    public static HandlerList getHandlerList()
+    {
+        return HANDLERS;
+    }
+
+    @Override
+    public @NotNull HandlerList getHandlers()
+    {
+        return HANDLERS;
+    }
+
+}
@@ -2,6 +2,7 @@ package me.ryanhamshire.GriefPrevention.util;
 
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.ProtocolLibrary;
+import com.comphenix.protocol.ProtocolManager;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.reflect.FuzzyReflection;
 import com.comphenix.protocol.reflect.fuzzy.FuzzyFieldContract;
@@ -15,10 +16,15 @@ import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.FallingBlock;
 import org.bukkit.entity.Player;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -29,10 +35,15 @@ import java.util.logging.Logger;
  */
 public class ProtocolUtil {
 
+    // the client refuses bundles holding more packets than this
+    private static final int MAX_BUNDLE_SIZE = 4096;
+
     // reflective handles
-    // M method, F field
-    private static Method m_craftBlockData_getState = null;
-    private static Method m_nmsBlock_getId = null;
+    // MH method handle, F field
+    private static volatile MethodHandle mh_blockData_getStateId = null;
+
+    // caches
+    private static final Map<BlockData, Integer> BLOCK_STATE_ID_CACHE = new ConcurrentHashMap<>();
 
     // direct references
     private static AtomicInteger nmsEntity_entityCounter = null;
@@ -43,33 +54,70 @@ public class ProtocolUtil {
      * @return the NMS registry state ID.
      */
     public static int getBlockStateId(BlockData data) {
+        Integer cached = BLOCK_STATE_ID_CACHE.get(data);
+        if (cached != null) return cached;
+
         try {
-            if (m_craftBlockData_getState == null || m_nmsBlock_getId == null) {
-                // use reflection to obtain the <nms.BlockState> getState method in CraftBlockData.
-                Class<?> craftBlockDataClazz = MinecraftReflection.getCraftBukkitClass("block.data.CraftBlockData");
-                Method M_craftBlockData_getState = craftBlockDataClazz.getMethod("getState");
-                M_craftBlockData_getState.setAccessible(true);
-                ProtocolUtil.m_craftBlockData_getState = M_craftBlockData_getState;
-
-                // use fuzzy reflection to find getId method in the nms.Block class.
-                // this will lookup and return the registry state ID for the given nms.BlockState reference.
-                // we'll just have to hope there isn't another public static method that returns int and accepts exactly nms.BlockState in the nms.Block class.
-                FuzzyReflection blockReflector = FuzzyReflection.fromClass(MinecraftReflection.getBlockClass());
-                m_nmsBlock_getId = blockReflector.getMethod(FuzzyMethodContract.newBuilder()
-                        .banModifier(Modifier.PRIVATE)
-                        .banModifier(Modifier.PROTECTED)
-                        .requireModifier(Modifier.STATIC)
-                        .parameterExactArray(MinecraftReflection.getIBlockDataClass())
-                        .returnTypeExact(int.class)
-                        .build());
-            }
+            int id = (int) getStateIdHandle().invokeExact((Object) data);
+            // there is a bounded number of block states, so the cache can't grow forever.
+            // store a copy in case the caller changes their block data later.
+            BLOCK_STATE_ID_CACHE.put(data.clone(), id);
+            return id;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    private static MethodHandle getStateIdHandle() throws ReflectiveOperationException {
+        MethodHandle handle = mh_blockData_getStateId;
+        if (handle == null) {
+            // use reflection to obtain the <nms.BlockState> getState method in CraftBlockData.
+            Class<?> craftBlockDataClazz = MinecraftReflection.getCraftBukkitClass("block.data.CraftBlockData");
+            Method m_craftBlockData_getState = craftBlockDataClazz.getMethod("getState");
+            m_craftBlockData_getState.setAccessible(true);
+
+            // use fuzzy reflection to find getId method in the nms.Block class.
+            // this will lookup and return the registry state ID for the given nms.BlockState reference.
+            // we'll just have to hope there isn't another public static method that returns int and accepts exactly nms.BlockState in the nms.Block class.
+            FuzzyReflection blockReflector = FuzzyReflection.fromClass(MinecraftReflection.getBlockClass());
+            Method m_nmsBlock_getId = blockReflector.getMethod(FuzzyMethodContract.newBuilder()
+                    .banModifier(Modifier.PRIVATE)
+                    .banModifier(Modifier.PROTECTED)
+                    .requireModifier(Modifier.STATIC)
+                    .parameterExactArray(MinecraftReflection.getIBlockDataClass())
+                    .returnTypeExact(int.class)
+                    .build());
+
+            // chain the two into a single handle taking the CraftBlockData and returning the state ID
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            handle = MethodHandles.filterReturnValue(
+                            lookup.unreflect(m_craftBlockData_getState),
+                            lookup.unreflect(m_nmsBlock_getId))
+                    .asType(MethodType.methodType(int.class, Object.class));
+            mh_blockData_getStateId = handle;
+        }
+        return handle;
+    }
+
+    /**
+     * Sends packets to a player in order, wrapped in bundles where the protocol supports them so the client
+     * processes them together in a single tick.
+     * @param whom the player to send the packets to.
+     * @param packets the packets to send
+     */
+    public static void sendBundled(Player whom, List<PacketContainer> packets) {
+        ProtocolManager manager = ProtocolLibrary.getProtocolManager();
+        if (packets.size() < 2 || !PacketType.Play.Server.BUNDLE.isSupported()) {
+            for (PacketContainer packet : packets) manager.sendServerPacket(whom, packet);
+            return;
+        }
 
-            // invoke getState to get the nms.BlockState of the CraftBlockData
-            Object nmsState = m_craftBlockData_getState.invoke(data);
-            // invoke getId to get the nms registry state ID of the nms.BlockState
-            return (int) m_nmsBlock_getId.invoke(null, nmsState);
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException(e);
+        for (int start = 0; start < packets.size(); start += MAX_BUNDLE_SIZE) {
+            PacketContainer bundle = new PacketContainer(PacketType.Play.Server.BUNDLE);
+            bundle.getPacketBundles().write(0, packets.subList(start, Math.min(packets.size(), start + MAX_BUNDLE_SIZE)));
+            manager.sendServerPacket(whom, bundle);
         }
     }
 
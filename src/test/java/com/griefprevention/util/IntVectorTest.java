@@ -0,0 +1,67 @@
+package com.griefprevention.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntVectorTest
+{
+    @ParameterizedTest
+    @CsvSource({
+            "0,0,0",
+            "1,-1,1",
+            "-1,1,-1",
+            "30000000,2047,-30000000",
+            "-30000000,-2048,30000000",
+            "33554431,2047,33554431",
+            "-33554432,-2048,-33554432",
+            "12,-64,-7",
+            "-5,319,123456"
+    })
+    public void testPackUnpack(int x, int y, int z)
+    {
+        long packed = IntVector.pack(x, y, z);
+        assertEquals(x, IntVector.unpackX(packed));
+        assertEquals(y, IntVector.unpackY(packed));
+        assertEquals(z, IntVector.unpackZ(packed));
+        assertEquals(new IntVector(x, y, z), IntVector.unpack(packed));
+        assertEquals(packed, new IntVector(x, y, z).pack());
+    }
+
+    @Test
+    public void testPackUnique()
+    {
+        // Neighbouring positions must never share a packed value.
+        Set<Long> packed = new HashSet<>();
+        for (int x = -2; x <= 2; x++)
+        {
+            for (int y = -2; y <= 2; y++)
+            {
+                for (int z = -2; z <= 2; z++)
+                {
+                    assertTrue(packed.add(IntVector.pack(x, y, z)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPackUnpackRandom()
+    {
+        Random random = new Random(0);
+        for (int i = 0; i < 10_000; i++)
+        {
+            int x = random.nextInt(-30_000_000, 30_000_001);
+            int y = random.nextInt(-2048, 2048);
+            int z = random.nextInt(-30_000_000, 30_000_001);
+            assertEquals(new IntVector(x, y, z), IntVector.unpack(IntVector.pack(x, y, z)));
+        }
+    }
+}
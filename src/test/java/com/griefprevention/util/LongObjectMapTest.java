@@ -0,0 +1,90 @@
+package com.griefprevention.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongObjectMapTest
+{
+    @Test
+    public void testPutGetRemove()
+    {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertTrue(map.isEmpty());
+
+        assertNull(map.put(1L, "a"));
+        assertNull(map.put(-1L, "b"));
+        assertEquals("a", map.put(1L, "c"));
+        assertEquals("c", map.putIfAbsent(1L, "d"));
+        assertEquals(2, map.size());
+        assertEquals("c", map.get(1L));
+        assertEquals("b", map.get(-1L));
+        assertNull(map.get(2L));
+
+        assertEquals("c", map.remove(1L));
+        assertNull(map.remove(1L));
+        assertFalse(map.containsKey(1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testPackedCoordinates()
+    {
+        LongObjectMap<IntVector> map = new LongObjectMap<>();
+        for (int x = -20; x <= 20; x++)
+        {
+            for (int z = -20; z <= 20; z++)
+            {
+                map.put(IntVector.pack(x, 64, z), new IntVector(x, 64, z));
+            }
+        }
+
+        assertEquals(41 * 41, map.size());
+        assertEquals(41 * 41, map.values().size());
+        assertEquals(41 * 41, map.keys().length);
+        assertEquals(new IntVector(-20, 64, 17), map.get(IntVector.pack(-20, 64, 17)));
+        assertNull(map.get(IntVector.pack(-20, 65, 17)));
+    }
+
+    @Test
+    public void testMatchesHashMap()
+    {
+        // Random puts and removes keep every remaining key reachable after entries are shifted back.
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++)
+        {
+            long key = random.nextInt(512);
+            if (random.nextBoolean())
+            {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+            else
+            {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet())
+        {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        for (long key : map.keys())
+        {
+            assertTrue(expected.containsKey(key));
+        }
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(expected.keySet().iterator().next()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.griefprevention.util.command;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandTrieTest
+{
+
+    @ParameterizedTest
+    @CsvSource({
+            "/test,true",
+            "/TEST,true",
+            "/test one two,true",
+            "/tes,false",
+            "/testing,false",
+            "/test:test,false",
+            "/other one,true",
+            "/other,false",
+            "/other two,false",
+            "/other one two,true",
+            "/other  one,false"
+    })
+    void matches(String command, boolean expected)
+    {
+        CommandTrie trie = new CommandTrie();
+        trie.add("/test");
+        trie.add("/other one");
+
+        assertEquals(expected, trie.matches(command, 1), command);
+    }
+
+    @Test
+    void maxSpaces()
+    {
+        CommandTrie trie = new CommandTrie();
+        trie.add("/test one");
+
+        assertTrue(trie.matches("/test one", 1));
+        assertFalse(trie.matches("/test one", 0), "Entries with more spaces than the maximum must not be matched");
+    }
+
+    @Test
+    void empty()
+    {
+        CommandTrie trie = new CommandTrie();
+        assertFalse(trie.matches("/test", -1));
+        assertFalse(trie.matches("", -1));
+    }
+
+    @Test
+    void matchesSubstringLookup()
+    {
+        // Compare against the behavior of looking up each leading section of a command in a set.
+        List<String> tokens = List.of("/a", "/b", "x", "y", "/a:b", " ", "  ", "A", "X");
+        Random random = new Random(0);
+        for (int trial = 0; trial < 500; ++trial)
+        {
+            Set<String> set = new HashSet<>();
+            CommandTrie trie = new CommandTrie();
+            int maxSpaces = -1;
+            for (int i = random.nextInt(5); i > 0; --i)
+            {
+                String entry = randomCommand(random, tokens).toLowerCase();
+                set.add(entry);
+                trie.add(entry);
+                maxSpaces = Math.max(maxSpaces, (int) entry.chars().filter(ch -> ch == ' ').count());
+            }
+
+            for (int i = 0; i < 50; ++i)
+            {
+                String command = randomCommand(random, tokens);
+                MonitorableCommand monitorable = new MonitorableCommand(command);
+                boolean expected = false;
+                for (int spaces = 0; spaces <= Math.min(maxSpaces, monitorable.getArgumentCount()); ++spaces)
+                {
+                    expected |= set.contains(monitorable.getCommand(spaces));
+                }
+
+                assertEquals(expected, trie.matches(command, maxSpaces), () -> set + " " + command);
+            }
+        }
+    }
+
+    private static String randomCommand(Random random, List<String> tokens)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1 + random.nextInt(4); i > 0; --i)
+        {
+            builder.append(tokens.get(random.nextInt(tokens.size())));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.griefprevention.visualization.impl;
+
+import com.griefprevention.util.IntVector;
+import com.griefprevention.visualization.BlockElement;
+import org.bukkit.HeightMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FakeBlockVisualizationTest
+{
+
+    private static final int ELEMENTS = 200;
+
+    @Test
+    public void testDrawSendsSingleMultiBlockChange()
+    {
+        World world = mockWorld(true);
+        Player player = mock(Player.class);
+
+        new FakeBlockVisualization(world, new IntVector(0, 64, 0), 64).drawElements(player, elements());
+
+        // One bulk change instead of one packet per element.
+        verify(player).sendBlockChanges(argThat(states -> states.size() == ELEMENTS));
+        verify(player, never()).sendBlockChange(any(Location.class), any(BlockData.class));
+    }
+
+    @Test
+    public void testEraseSendsSingleMultiBlockChange()
+    {
+        World world = mockWorld(true);
+        Player player = mock(Player.class);
+
+        new FakeBlockVisualization(world, new IntVector(0, 64, 0), 64).eraseElements(player, elements());
+
+        verify(player).sendBlockChanges(argThat(states -> states.size() == ELEMENTS));
+        verify(player, never()).sendBlockChange(any(Location.class), any(BlockData.class));
+
+        // States are built from block data rather than snapshotting the world's blocks and their tile entities.
+        verify(world.getBlockAt(0, 64, 0), never()).getState();
+    }
+
+    @Test
+    public void testEraseInUnloadedChunksFallsBack()
+    {
+        World world = mockWorld(false);
+        Player player = mock(Player.class);
+
+        new FakeBlockVisualization(world, new IntVector(0, 64, 0), 64).eraseElements(player, elements());
+
+        // Block states can't be obtained without loading chunks, so each element is reverted on its own.
+        verify(player, never()).sendBlockChanges(any());
+        verify(player, times(ELEMENTS)).sendBlockChange(any(Location.class), any(BlockData.class));
+    }
+
+    @Test
+    public void testWorldLookupsCachedWhileGathering()
+    {
+        World world = mockWorld(true);
+        when(world.getHighestBlockYAt(anyInt(), anyInt(), any(HeightMap.class)))
+                .thenAnswer(invocation -> invocation.<Integer>getArgument(0) + 70);
+        FakeBlockVisualization visualization = new FakeBlockVisualization(world, new IntVector(0, 64, 0), 64);
+
+        assertEquals(75, visualization.getSurfaceY(5, -3));
+        assertEquals(75, visualization.getSurfaceY(5, -3));
+        verify(world, times(1)).getHighestBlockYAt(5, -3, HeightMap.WORLD_SURFACE);
+
+        // Columns outside the display zone aren't cached, but are still looked up.
+        assertEquals(270, visualization.getSurfaceY(200, 0));
+        assertEquals(270, visualization.getSurfaceY(200, 0));
+        verify(world, times(2)).getHighestBlockYAt(200, 0, HeightMap.WORLD_SURFACE);
+
+        BlockData blockData = visualization.getCachedBlockData(5, 60, -3);
+        assertSame(blockData, visualization.getCachedBlockData(5, 60, -3));
+        verify(world, times(1)).getBlockAt(5, 60, -3);
+    }
+
+    private static World mockWorld(boolean chunksLoaded)
+    {
+        Block block = mock(Block.class);
+        when(block.getBlockData()).thenAnswer(invocation -> mock(BlockData.class));
+
+        World world = mock(World.class);
+        when(world.getBlockAt(anyInt(), anyInt(), anyInt())).thenReturn(block);
+        when(world.isChunkLoaded(anyInt(), anyInt())).thenReturn(chunksLoaded);
+        return world;
+    }
+
+    private static List<BlockElement> elements()
+    {
+        BlockData real = mockBlockData();
+        BlockData fake = mockBlockData();
+
+        // A claim edge running across a few chunk sections.
+        List<BlockElement> elements = new ArrayList<>(ELEMENTS);
+        for (int i = 0; i < ELEMENTS; i++)
+        {
+            elements.add(new FakeBlockElement(new IntVector(i, 64, 0), real, fake));
+        }
+        return elements;
+    }
+
+    private static BlockData mockBlockData()
+    {
+        BlockState state = mock(BlockState.class);
+        when(state.copy(any(Location.class))).thenAnswer(invocation -> mock(BlockState.class));
+
+        BlockData blockData = mock(BlockData.class);
+        when(blockData.createBlockState()).thenReturn(state);
+        return blockData;
+    }
+
+}
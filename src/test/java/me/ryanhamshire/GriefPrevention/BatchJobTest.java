@@ -0,0 +1,57 @@
+package me.ryanhamshire.GriefPrevention;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchJobTest
+{
+    private static final List<Integer> ITEMS = IntStream.range(0, 100).boxed().toList();
+
+    @Test
+    void processesEachItemOnceInOrder()
+    {
+        List<Integer> processed = new ArrayList<>();
+        BatchJob<Integer> job = new BatchJob<>(ITEMS, TimeUnit.SECONDS.toNanos(10), 1, processed::addAll, null);
+
+        assertTrue(job.process(), "A generous budget must process every item in one tick");
+        assertEquals(ITEMS, processed);
+        assertTrue(job.getBatchSize() > 1, "Fast batches must grow");
+    }
+
+    @Test
+    void stopsAtBudget()
+    {
+        List<List<Integer>> batches = new ArrayList<>();
+        BatchJob<Integer> job = new BatchJob<>(ITEMS, 0, 10, batch -> batches.add(new ArrayList<>(batch)), null);
+
+        // With no budget, each tick runs a single batch.
+        assertFalse(job.process());
+        assertEquals(1, batches.size());
+        assertEquals(ITEMS.subList(0, 10), batches.get(0));
+
+        int ticks = 1;
+        while (!job.process()) ticks++;
+        ticks++;
+
+        List<Integer> processed = new ArrayList<>();
+        batches.forEach(processed::addAll);
+        assertEquals(ITEMS, processed);
+        assertEquals(batches.size(), ticks);
+    }
+
+    @Test
+    void emptyIsComplete()
+    {
+        BatchJob<Integer> job = new BatchJob<>(List.of(), 0, 10, batch -> { throw new AssertionError("No batch expected"); }, null);
+        assertTrue(job.process());
+    }
+
+}
@@ -0,0 +1,121 @@
+package me.ryanhamshire.GriefPrevention;
+
+import me.ryanhamshire.GriefPrevention.util.BoundingBox;
+import org.bukkit.World;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ClaimQueryTest
+{
+    private static final UUID OWNER_1 = UUID.fromString("7e3f1b2a-9c4d-4e5f-8a6b-1c2d3e4f5a6b");
+    private static final UUID OWNER_2 = UUID.fromString("2d4c6b8a-1f3e-4d5c-9b7a-6e5f4d3c2b1a");
+
+    private final World world1 = mock(World.class);
+    private final World world2 = mock(World.class);
+
+    @Test
+    void matchesOnlyEffectiveTopLevelClaims()
+    {
+        Claim claim = claim(world1, OWNER_1, 10);
+        assertTrue(ClaimQuery.all().matches(claim));
+
+        claim.inDataStore = false;
+        assertFalse(ClaimQuery.all().matches(claim), "Deleted claims must not match");
+
+        Claim child = claim(world1, OWNER_1, 5);
+        child.parent = claim(world1, OWNER_1, 10);
+        assertFalse(ClaimQuery.all().matches(child), "Subdivisions must not match");
+    }
+
+    @Test
+    void matchesOwner()
+    {
+        Claim owned = claim(world1, OWNER_1, 10);
+        Claim admin = claim(world1, null, 10);
+
+        assertTrue(ClaimQuery.ownedBy(OWNER_1).matches(owned));
+        assertFalse(ClaimQuery.ownedBy(OWNER_2).matches(owned));
+        assertFalse(ClaimQuery.ownedBy(OWNER_1).matches(admin));
+
+        assertTrue(ClaimQuery.adminClaims().matches(admin));
+        assertFalse(ClaimQuery.adminClaims().matches(owned));
+    }
+
+    @Test
+    void matchesWorld()
+    {
+        Claim claim = claim(world1, OWNER_1, 10);
+
+        assertTrue(ClaimQuery.all().inWorld(world1).matches(claim));
+        assertFalse(ClaimQuery.all().inWorld(world2).matches(claim));
+    }
+
+    @Test
+    void matchesArea()
+    {
+        // A 10x10 claim has an area of 100.
+        Claim claim = claim(world1, OWNER_1, 10);
+
+        assertTrue(ClaimQuery.all().withArea(100, 100).matches(claim));
+        assertTrue(ClaimQuery.all().withArea(0, 100).matches(claim));
+        assertFalse(ClaimQuery.all().withArea(0, 99).matches(claim));
+        assertFalse(ClaimQuery.all().withArea(101, Integer.MAX_VALUE).matches(claim));
+    }
+
+    @Test
+    void matchesModifiedSince()
+    {
+        Claim claim = claim(world1, OWNER_1, 10);
+        claim.modifiedDate = new Date(5000);
+
+        assertTrue(ClaimQuery.all().modifiedSince(new Date(4999)).matches(claim));
+        assertTrue(ClaimQuery.all().modifiedSince(new Date(5000)).matches(claim));
+        assertFalse(ClaimQuery.all().modifiedSince(new Date(5001)).matches(claim));
+
+        claim.modifiedDate = null;
+        assertFalse(ClaimQuery.all().modifiedSince(new Date(0)).matches(claim));
+    }
+
+    @Test
+    void filtersCombine()
+    {
+        Claim claim = claim(world1, OWNER_1, 10);
+        ClaimQuery query = ClaimQuery.ownedBy(OWNER_1).inWorld(world1).withArea(50, 150);
+
+        assertTrue(query.matches(claim));
+        assertFalse(query.inWorld(world2).matches(claim), "Copies must keep the other filters");
+        assertFalse(query.withArea(0, 50).matches(claim));
+    }
+
+    @Test
+    void equality()
+    {
+        assertEquals(ClaimQuery.ownedBy(OWNER_1), ClaimQuery.ownedBy(OWNER_1));
+        assertEquals(ClaimQuery.ownedBy(OWNER_1).hashCode(), ClaimQuery.ownedBy(OWNER_1).hashCode());
+        assertEquals(ClaimQuery.all().inWorld(world1).withArea(1, 2), ClaimQuery.all().withArea(1, 2).inWorld(world1));
+
+        assertNotEquals(ClaimQuery.ownedBy(OWNER_1), ClaimQuery.ownedBy(OWNER_2));
+        assertNotEquals(ClaimQuery.all(), ClaimQuery.adminClaims());
+        assertNotEquals(ClaimQuery.all(), ClaimQuery.all().inWorld(world1));
+        assertNotEquals(ClaimQuery.all(), ClaimQuery.all().withArea(0, 10));
+        assertNotEquals(ClaimQuery.all(), ClaimQuery.all().modifiedSince(new Date(0)));
+    }
+
+    private static Claim claim(World world, UUID owner, int size)
+    {
+        BoundingBox bounds = new BoundingBox(0, 0, 0, size - 1, 255, size - 1);
+        Claim claim = new Claim(world, bounds, owner, List.of(), List.of(), List.of(), List.of(), false, 1L);
+        claim.inDataStore = true;
+        return claim;
+    }
+
+}
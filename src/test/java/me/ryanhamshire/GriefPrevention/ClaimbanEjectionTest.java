@@ -0,0 +1,176 @@
+package me.ryanhamshire.GriefPrevention;
+
+import com.griefprevention.test.ServerMocks;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class ClaimbanEjectionTest
+{
+    private static final UUID PLAYER_UUID = UUID.fromString("3f7d2a91-6c1b-4e8a-9d05-b2c4e6f81a37");
+    private static final int FLOOR_Y = 63;
+
+    private final World world = mock(World.class);
+    private final Player player = mock(Player.class);
+    private TestDataStore dataStore;
+    private Claim bannedClaim;
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        Bukkit.setServer(ServerMocks.newServer());
+
+        // Ban checks reach the data store through the plugin instance.
+        GriefPrevention.instance = mock(GriefPrevention.class);
+    }
+
+    @AfterAll
+    static void afterAll()
+    {
+        //noinspection DataFlowIssue
+        GriefPrevention.instance = null;
+        ServerMocks.unsetBukkitServer();
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        dataStore = new TestDataStore();
+        GriefPrevention.instance.dataStore = dataStore;
+
+        WorldBorder border = mock(WorldBorder.class);
+        doAnswer(invocation -> new Location(world, 0, 0, 0)).when(border).getCenter();
+        doReturn(1000D).when(border).getSize();
+        doReturn(border).when(world).getWorldBorder();
+        doReturn(World.Environment.NORMAL).when(world).getEnvironment();
+        doReturn(256).when(world).getMaxHeight();
+        doReturn(PLAYER_UUID).when(player).getUniqueId();
+
+        bannedClaim = dataStore.addTestClaim(world, 1, null, null, 0, 0, 15, 15);
+        bannedClaim.banUUID(PLAYER_UUID);
+    }
+
+    @Test
+    void searchFindsNearestSafeSpotOutsideClaim()
+    {
+        ClaimbanEjection ejection = newEjection();
+
+        long[] candidates = ejection.search(List.of(flatChunk(1, 0)));
+
+        assertArrayEquals(new long[] { pack(16, 8), FLOOR_Y }, candidates);
+    }
+
+    @Test
+    void searchOrdersCandidatesByDistance()
+    {
+        ClaimbanEjection ejection = newEjection();
+
+        // The western chunk is searched first, but its best spot is farther away.
+        long[] candidates = ejection.search(List.of(flatChunk(-1, 0), flatChunk(1, 0)));
+
+        assertArrayEquals(new long[] { pack(16, 8), FLOOR_Y, pack(-1, 8), FLOOR_Y }, candidates);
+    }
+
+    @Test
+    void searchSkipsClaimsPlayerIsBannedFrom()
+    {
+        Claim neighbour = dataStore.addTestClaim(world, 2, null, null, 16, 0, 20, 15);
+        neighbour.banUUID(PLAYER_UUID);
+        ClaimbanEjection ejection = newEjection();
+
+        long[] candidates = ejection.search(List.of(flatChunk(1, 0)));
+
+        assertArrayEquals(new long[] { pack(21, 8), FLOOR_Y }, candidates);
+    }
+
+    @Test
+    void searchAllowsClaimsPlayerIsNotBannedFrom()
+    {
+        dataStore.addTestClaim(world, 2, null, null, 16, 0, 20, 15);
+        ClaimbanEjection ejection = newEjection();
+
+        long[] candidates = ejection.search(List.of(flatChunk(1, 0)));
+
+        assertArrayEquals(new long[] { pack(16, 8), FLOOR_Y }, candidates);
+    }
+
+    @Test
+    void searchSkipsUnsafeBlocks()
+    {
+        ClaimbanEjection ejection = newEjection();
+        ChunkSnapshot snapshot = chunk(1, 0, (x, y, z) ->
+        {
+            if (y > FLOOR_Y) return Material.AIR;
+            // A strip of lava along the edge of the claim.
+            if (y == FLOOR_Y && x < 18) return Material.LAVA;
+            return Material.STONE;
+        });
+
+        long[] candidates = ejection.search(List.of(snapshot));
+
+        // Lava isn't safe and the stone below it has no room to stand.
+        assertArrayEquals(new long[] { pack(18, 8), FLOOR_Y }, candidates);
+    }
+
+    @Test
+    void searchIgnoresChunksInsideClaim()
+    {
+        ClaimbanEjection ejection = newEjection();
+
+        long[] candidates = ejection.search(List.of(flatChunk(0, 0)));
+
+        assertArrayEquals(new long[0], candidates);
+    }
+
+    private ClaimbanEjection newEjection()
+    {
+        return new ClaimbanEjection(player, bannedClaim, new Location(world, 8, FLOOR_Y + 1, 8), world);
+    }
+
+    private static long pack(int x, int z)
+    {
+        return (long) x << 32 | z & 0xFFFFFFFFL;
+    }
+
+    private static ChunkSnapshot flatChunk(int chunkX, int chunkZ)
+    {
+        return chunk(chunkX, chunkZ, (x, y, z) -> y > FLOOR_Y ? Material.AIR : Material.STONE);
+    }
+
+    private static ChunkSnapshot chunk(int chunkX, int chunkZ, BlockTypes types)
+    {
+        ChunkSnapshot snapshot = mock(ChunkSnapshot.class);
+        doReturn(chunkX).when(snapshot).getX();
+        doReturn(chunkZ).when(snapshot).getZ();
+        doReturn(FLOOR_Y).when(snapshot).getHighestBlockYAt(anyInt(), anyInt());
+        doAnswer(invocation -> types.getType(
+                (chunkX << 4) + invocation.<Integer>getArgument(0),
+                invocation.<Integer>getArgument(1),
+                (chunkZ << 4) + invocation.<Integer>getArgument(2)))
+                .when(snapshot).getBlockType(anyInt(), anyInt(), anyInt());
+        return snapshot;
+    }
+
+    private interface BlockTypes
+    {
+        Material getType(int x, int y, int z);
+    }
+
+}
@@ -0,0 +1,354 @@
+package me.ryanhamshire.GriefPrevention;
+
+import com.griefprevention.test.ServerMocks;
+import me.ryanhamshire.GriefPrevention.events.ClaimDeletedEvent;
+import me.ryanhamshire.GriefPrevention.events.ClaimsDeletedEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.event.Event;
+import org.bukkit.plugin.PluginManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class DataStoreTest
+{
+    private static final List<Event> events = new ArrayList<>();
+    private static final UUID OWNER_1 = UUID.fromString("0cc1e0a3-4e4c-4b86-9f0b-0d7a4c2f6e11");
+    private static final UUID OWNER_2 = UUID.fromString("5b1f7c62-2f0e-4a53-8d3c-91e5a8b4d7c2");
+
+    private final World world = mock(World.class);
+    private TestDataStore dataStore;
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        Server server = ServerMocks.newServer();
+        PluginManager pluginManager = mock(PluginManager.class);
+        doAnswer(invocation -> events.add(invocation.getArgument(0))).when(pluginManager).callEvent(any());
+        doReturn(pluginManager).when(server).getPluginManager();
+        Bukkit.setServer(server);
+
+        // Player data reaches the data store through the plugin instance.
+        GriefPrevention.instance = mock(GriefPrevention.class);
+        doReturn(server).when(GriefPrevention.instance).getServer();
+    }
+
+    @AfterAll
+    static void afterAll()
+    {
+        //noinspection DataFlowIssue
+        GriefPrevention.instance = null;
+        ServerMocks.unsetBukkitServer();
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        events.clear();
+        dataStore = new TestDataStore();
+        GriefPrevention.instance.dataStore = dataStore;
+    }
+
+    @Test
+    void deleteClaimsFiresEventForEachSubdivision()
+    {
+        Claim parent = dataStore.addTestClaim(world, 1, null, null, 0, 0, 99, 99);
+        Claim child1 = dataStore.addTestClaim(world, 2, null, parent, 0, 0, 9, 9);
+        Claim child2 = dataStore.addTestClaim(world, 3, null, parent, 20, 20, 29, 29);
+        Claim other = dataStore.addTestClaim(world, 4, null, null, 200, 200, 299, 299);
+
+        dataStore.deleteClaims(List.of(parent, other), true);
+
+        // Each claim and subdivision gets its own event, children before their parent.
+        List<Claim> deletedOrder = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+        {
+            ClaimDeletedEvent event = assertInstanceOf(ClaimDeletedEvent.class, events.get(i));
+            deletedOrder.add(event.getClaim());
+        }
+        assertEquals(List.of(child1, child2, parent, other), deletedOrder);
+
+        // Followed by a single event for the whole batch.
+        assertEquals(5, events.size());
+        ClaimsDeletedEvent batchEvent = assertInstanceOf(ClaimsDeletedEvent.class, events.get(4));
+        assertEquals(Set.of(child1, child2, parent, other), new HashSet<>(batchEvent.getClaims()));
+
+        for (Claim claim : List.of(parent, child1, child2, other))
+        {
+            assertFalse(claim.inDataStore);
+            assertTrue(dataStore.storageDeletes.contains(claim));
+        }
+        assertTrue(dataStore.getClaims().isEmpty());
+    }
+
+    @Test
+    void deleteClaimsWithoutEvents()
+    {
+        Claim parent = dataStore.addTestClaim(world, 1, null, null, 0, 0, 99, 99);
+        dataStore.addTestClaim(world, 2, null, parent, 0, 0, 9, 9);
+
+        dataStore.deleteClaims(List.of(parent), false);
+
+        assertTrue(events.isEmpty());
+        assertEquals(2, dataStore.storageDeletes.size());
+    }
+
+    @Test
+    void deleteClaimsInBatchesUpdatesOwnersOnce() throws InterruptedException
+    {
+        Claim claim1 = dataStore.addTestClaim(world, 1, OWNER_1, null, 0, 0, 9, 9);
+        Claim claim2 = dataStore.addTestClaim(world, 2, OWNER_1, null, 100, 100, 109, 109);
+        Claim claim3 = dataStore.addTestClaim(world, 3, OWNER_2, null, 200, 200, 209, 209);
+        Claim kept = dataStore.addTestClaim(world, 4, OWNER_1, null, 300, 300, 309, 309);
+        preparePlayerData(OWNER_1);
+        preparePlayerData(OWNER_2);
+        assertEquals(3, dataStore.getPlayerData(OWNER_1).getClaims().size());
+
+        DataStore.ClaimDeletion deletion = new DataStore.ClaimDeletion(true);
+        dataStore.markClaimsDeleted(deletion, List.of(claim1, claim3));
+        dataStore.markClaimsDeleted(deletion, List.of(claim2));
+
+        // Between batches, claims are no longer effective but the claim list is left alone.
+        assertFalse(claim1.inDataStore);
+        assertEquals(3, dataStore.storageDeletes.size());
+        assertEquals(4, dataStore.getClaims().size());
+        assertTrue(events.isEmpty());
+        assertTrue(dataStore.savedPlayerData.isEmpty());
+
+        dataStore.finishDeletion(deletion);
+
+        assertEquals(List.of(kept), new ArrayList<>(dataStore.getClaims()));
+        assertEquals(List.of(kept), new ArrayList<>(dataStore.getPlayerData(OWNER_1).getClaims()));
+        assertTrue(dataStore.getPlayerData(OWNER_2).getClaims().isEmpty());
+        assertEquals(4, events.size());
+
+        awaitSaves(2);
+        assertEquals(Map.of(OWNER_1, 1, OWNER_2, 1), dataStore.playerDataSaveCounts);
+    }
+
+    @Test
+    void savePlayerDataSavesEachPlayer() throws InterruptedException
+    {
+        Map<UUID, PlayerData> playerData = new LinkedHashMap<>();
+        playerData.put(OWNER_1, preparePlayerData(OWNER_1));
+        playerData.put(OWNER_2, preparePlayerData(OWNER_2));
+
+        dataStore.savePlayerData(playerData);
+
+        awaitSaves(2);
+        assertEquals(playerData, dataStore.savedPlayerData);
+        assertEquals(Map.of(OWNER_1, 1, OWNER_2, 1), dataStore.playerDataSaveCounts);
+    }
+
+    @Test
+    void savePlayerDataEmpty() throws InterruptedException
+    {
+        dataStore.savePlayerData(Map.of());
+
+        Thread.sleep(50);
+        assertTrue(dataStore.savedPlayerData.isEmpty());
+    }
+
+    @Test
+    void claimIndexesFollowCreateTransferDelete()
+    {
+        Claim owned = dataStore.addTestClaim(world, 1, OWNER_1, null, 0, 0, 9, 9);
+        Claim admin = dataStore.addTestClaim(world, 2, null, null, 100, 100, 109, 109);
+        dataStore.addTestClaim(world, 3, OWNER_1, owned, 0, 0, 4, 4);
+        preparePlayerData(OWNER_1);
+        preparePlayerData(OWNER_2);
+
+        // Subdivisions are not indexed.
+        assertEquals(List.of(owned, admin), query(ClaimQuery.all()));
+        assertEquals(List.of(owned), query(ClaimQuery.ownedBy(OWNER_1)));
+        assertEquals(List.of(), query(ClaimQuery.ownedBy(OWNER_2)));
+        assertEquals(List.of(admin), query(ClaimQuery.adminClaims()));
+
+        dataStore.changeClaimOwner(owned, OWNER_2);
+        assertEquals(List.of(owned, admin), query(ClaimQuery.all()));
+        assertEquals(List.of(), query(ClaimQuery.ownedBy(OWNER_1)));
+        assertEquals(List.of(owned), query(ClaimQuery.ownedBy(OWNER_2)));
+
+        dataStore.changeClaimOwner(admin, OWNER_1);
+        assertEquals(List.of(admin), query(ClaimQuery.ownedBy(OWNER_1)));
+        assertEquals(List.of(), query(ClaimQuery.adminClaims()));
+
+        dataStore.changeClaimOwner(admin, null);
+        assertEquals(List.of(), query(ClaimQuery.ownedBy(OWNER_1)));
+        assertEquals(List.of(admin), query(ClaimQuery.adminClaims()));
+
+        dataStore.deleteClaims(List.of(owned, admin), false);
+        assertEquals(List.of(), query(ClaimQuery.all()));
+        assertEquals(List.of(), query(ClaimQuery.ownedBy(OWNER_2)));
+        assertEquals(List.of(), query(ClaimQuery.adminClaims()));
+    }
+
+    @Test
+    void queryClaimsResumesFromCursor()
+    {
+        List<Claim> claims = addOwnedClaims(5);
+        ClaimQuery query = ClaimQuery.ownedBy(OWNER_1);
+
+        ClaimQuery.Page page = dataStore.queryClaims(query, ClaimQuery.START, 2);
+        assertEquals(claims.subList(0, 2), page.claims());
+        assertTrue(page.hasMore());
+
+        page = dataStore.queryClaims(query, page.cursor(), 2);
+        assertEquals(claims.subList(2, 4), page.claims());
+        assertTrue(page.hasMore());
+
+        page = dataStore.queryClaims(query, page.cursor(), 2);
+        assertEquals(claims.subList(4, 5), page.claims());
+        assertFalse(page.hasMore());
+
+        // A full last page doesn't claim there is more.
+        page = dataStore.queryClaims(query, ClaimQuery.START, 5);
+        assertEquals(claims, page.claims());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void getClaimsPage()
+    {
+        List<Claim> claims = addOwnedClaims(7);
+        ClaimQuery query = ClaimQuery.ownedBy(OWNER_1);
+
+        assertEquals(claims.subList(0, 3), page(query, 1).claims());
+        assertEquals(claims.subList(3, 6), page(query, 2).claims());
+        ClaimQuery.Page last = page(query, 3);
+        assertEquals(claims.subList(6, 7), last.claims());
+        assertFalse(last.hasMore());
+
+        // Pages past the end are an error rather than the last page again.
+        assertNull(dataStore.getClaimsPage(query, 4, 3));
+        assertNull(dataStore.getClaimsPage(query, 0, 3));
+
+        // Jumping straight to a page of a query not listed before.
+        assertEquals(claims.subList(6, 7), page(ClaimQuery.all(), 3).claims());
+        assertNull(dataStore.getClaimsPage(ClaimQuery.all(), 5, 3));
+
+        // Going back to an earlier page.
+        assertEquals(claims.subList(0, 3), page(query, 1).claims());
+        assertEquals(claims.subList(3, 6), page(query, 2).claims());
+    }
+
+    @Test
+    void getClaimsPageEmpty()
+    {
+        ClaimQuery.Page page = page(ClaimQuery.ownedBy(OWNER_1), 1);
+        assertTrue(page.claims().isEmpty());
+        assertFalse(page.hasMore());
+
+        assertNull(dataStore.getClaimsPage(ClaimQuery.ownedBy(OWNER_1), 2, 3));
+    }
+
+    @Test
+    void getClaimsPageAfterChanges()
+    {
+        List<Claim> claims = addOwnedClaims(7);
+        ClaimQuery query = ClaimQuery.ownedBy(OWNER_1);
+        assertEquals(claims.subList(0, 3), page(query, 1).claims());
+
+        // Deleting a claim already shown moves the next page's first claim onto the earlier page.
+        dataStore.deleteClaims(List.of(claims.get(1)), false);
+        assertEquals(claims.subList(4, 7), page(query, 2).claims());
+        assertNull(dataStore.getClaimsPage(query, 3, 3));
+
+        Claim added = dataStore.addTestClaim(world, 8, OWNER_1, null, 800, 0, 809, 9);
+        assertEquals(List.of(added), page(query, 3).claims());
+
+        dataStore.deleteClaims(List.of(added), false);
+        assertNull(dataStore.getClaimsPage(query, 3, 3));
+    }
+
+    @Test
+    void getClaimsPageAfterTransferIn()
+    {
+        List<Claim> claims = addOwnedClaims(6);
+        Claim transferred = dataStore.addTestClaim(world, 0, OWNER_2, null, 0, 0, 9, 9);
+        preparePlayerData(OWNER_2);
+        ClaimQuery query = ClaimQuery.ownedBy(OWNER_1);
+        assertEquals(claims.subList(0, 3), page(query, 1).claims());
+        assertEquals(claims.subList(3, 6), page(query, 2).claims());
+
+        // The claim joins the start of the owner's index, pushing a claim from every page onto the next one.
+        dataStore.changeClaimOwner(transferred, OWNER_1);
+
+        List<Claim> listed = new ArrayList<>();
+        ClaimQuery.Page page;
+        for (int pageNumber = 1; (page = dataStore.getClaimsPage(query, pageNumber, 3)) != null; pageNumber++)
+        {
+            listed.addAll(page.claims());
+        }
+
+        List<Claim> expected = new ArrayList<>(claims);
+        expected.add(0, transferred);
+        assertEquals(expected, listed);
+    }
+
+    private List<Claim> addOwnedClaims(int count)
+    {
+        List<Claim> claims = new ArrayList<>();
+        for (int i = 1; i <= count; i++)
+        {
+            claims.add(dataStore.addTestClaim(world, i, OWNER_1, null, i * 100, 0, i * 100 + 9, 9));
+        }
+        preparePlayerData(OWNER_1);
+        return claims;
+    }
+
+    private List<Claim> query(ClaimQuery query)
+    {
+        return dataStore.queryClaims(query, ClaimQuery.START, Integer.MAX_VALUE).claims();
+    }
+
+    private ClaimQuery.Page page(ClaimQuery query, int pageNumber)
+    {
+        ClaimQuery.Page page = dataStore.getClaimsPage(query, pageNumber, 3);
+        assertNotNull(page);
+        return page;
+    }
+
+    private PlayerData preparePlayerData(UUID playerID)
+    {
+        // Set the values that would otherwise be loaded from storage.
+        PlayerData playerData = dataStore.getPlayerData(playerID);
+        playerData.setAccruedClaimBlocks(10000);
+        playerData.setBonusClaimBlocks(0);
+        return playerData;
+    }
+
+    private void awaitSaves(int count) throws InterruptedException
+    {
+        // Player data is saved on a background thread.
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (dataStore.savedPlayerData.size() < count && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+    }
+
+}
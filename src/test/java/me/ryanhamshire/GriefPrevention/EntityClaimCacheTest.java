@@ -0,0 +1,109 @@
+package me.ryanhamshire.GriefPrevention;
+
+import com.griefprevention.test.ServerMocks;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class EntityClaimCacheTest
+{
+    private final World world = mock(World.class);
+    private TestDataStore dataStore;
+
+    @BeforeAll
+    static void beforeAll()
+    {
+        Bukkit.setServer(ServerMocks.newServer());
+
+        // Entity lookups check the config and deletions reach the data store through the plugin instance.
+        GriefPrevention.instance = mock(GriefPrevention.class);
+        GriefPrevention.instance.config_advanced_cacheEntityClaims = true;
+    }
+
+    @AfterAll
+    static void afterAll()
+    {
+        //noinspection DataFlowIssue
+        GriefPrevention.instance = null;
+        ServerMocks.unsetBukkitServer();
+    }
+
+    @BeforeEach
+    void beforeEach()
+    {
+        dataStore = new TestDataStore();
+        GriefPrevention.instance.dataStore = dataStore;
+    }
+
+    @Test
+    void getClaimAtFollowsEntity()
+    {
+        Claim claim = dataStore.addTestClaim(world, 1, null, null, 0, 0, 15, 15);
+        Location location = new Location(world, 5, 64, 5);
+        Entity entity = entity(1, location);
+
+        assertSame(claim, dataStore.getClaimAt(entity, null));
+        assertSame(claim, dataStore.getClaimAt(entity, null));
+
+        location.setX(20);
+        assertNull(dataStore.getClaimAt(entity, null));
+    }
+
+    @Test
+    void getClaimAtInvalidatedByClaimDelete()
+    {
+        Claim claim = dataStore.addTestClaim(world, 1, null, null, 0, 0, 15, 15);
+        Entity entity = entity(1, new Location(world, 5, 64, 5));
+        assertSame(claim, dataStore.getClaimAt(entity, null));
+
+        dataStore.deleteClaims(List.of(claim), false);
+
+        assertNull(dataStore.getClaimAt(entity, null));
+    }
+
+    @Test
+    void getClaimAtInvalidatedByBulkSubdivisionDelete()
+    {
+        Claim parent = dataStore.addTestClaim(world, 1, null, null, 0, 0, 15, 15);
+        Claim child = dataStore.addTestClaim(world, 2, null, parent, 0, 0, 9, 9);
+        Entity entity = entity(1, new Location(world, 5, 64, 5));
+        assertSame(child, dataStore.getClaimAt(entity, null));
+
+        // Deleting only the subdivision leaves the chunk lookups alone, but the entity is now in the parent.
+        dataStore.deleteClaims(List.of(child), false);
+
+        assertSame(parent, dataStore.getClaimAt(entity, null));
+    }
+
+    private static Entity entity(int entityId, Location location)
+    {
+        Entity entity = mock(Entity.class);
+        doReturn(entityId).when(entity).getEntityId();
+        doAnswer(invocation -> location.clone()).when(entity).getLocation();
+        doAnswer(invocation ->
+        {
+            Location into = invocation.getArgument(0);
+            into.setWorld(location.getWorld());
+            into.setX(location.getX());
+            into.setY(location.getY());
+            into.setZ(location.getZ());
+            return into;
+        }).when(entity).getLocation(any(Location.class));
+        return entity;
+    }
+
+}
@@ -0,0 +1,46 @@
+package me.ryanhamshire.GriefPrevention;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class MessageTemplateTest
+{
+    @Test
+    public void testNoPlaceholders()
+    {
+        String message = "Claim created!";
+        assertSame(message, MessageTemplate.compile(message).render());
+        assertSame(message, MessageTemplate.compile(message).render("unused"));
+    }
+
+    @Test
+    public void testPlaceholders()
+    {
+        MessageTemplate template = MessageTemplate.compile("{0} gave {1} {2} blocks. {0} has {3} left.");
+        assertEquals("Alice gave Bob 100 blocks. Alice has 20 left.", template.render("Alice", "Bob", "100", "20"));
+    }
+
+    @Test
+    public void testMissingArguments()
+    {
+        MessageTemplate template = MessageTemplate.compile("{0} and {1}");
+        assertEquals("a and {1}", template.render("a"));
+        assertEquals("{0} and {1}", template.render());
+    }
+
+    @Test
+    public void testArgumentsAreNotReplacedAgain()
+    {
+        MessageTemplate template = MessageTemplate.compile("{0} {1}");
+        assertEquals("{1} b", template.render("{1}", "b"));
+    }
+
+    @Test
+    public void testNonPlaceholderBraces()
+    {
+        MessageTemplate template = MessageTemplate.compile("{a} {01} {} {{0}} {1");
+        assertEquals("{a} {01} {} {x} {1", template.render("x", "y"));
+    }
+}
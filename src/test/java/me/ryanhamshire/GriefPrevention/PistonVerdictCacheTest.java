@@ -0,0 +1,112 @@
+package me.ryanhamshire.GriefPrevention;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class PistonVerdictCacheTest
+{
+    private static final UUID WORLD_1 = UUID.fromString("9d1e6a54-2b7c-4f38-8e0d-5a6b7c8d9e0f");
+    private static final UUID WORLD_2 = UUID.fromString("1a2b3c4d-5e6f-4a7b-8c9d-0e1f2a3b4c5d");
+
+    private long now = 1_000_000;
+
+    @Test
+    void keyEquality()
+    {
+        PistonVerdictCache.Key key = key(WORLD_1, 0, BlockFace.NORTH, false, 0, 1);
+
+        assertEquals(key, key(WORLD_1, 0, BlockFace.NORTH, false, 0, 1));
+        assertEquals(key.hashCode(), key(WORLD_1, 0, BlockFace.NORTH, false, 0, 1).hashCode());
+
+        // Every part of the movement matters.
+        assertNotEquals(key, key(WORLD_2, 0, BlockFace.NORTH, false, 0, 1));
+        assertNotEquals(key, key(WORLD_1, 5, BlockFace.NORTH, false, 0, 1));
+        assertNotEquals(key, key(WORLD_1, 0, BlockFace.SOUTH, false, 0, 1));
+        assertNotEquals(key, key(WORLD_1, 0, BlockFace.NORTH, true, 0, 1));
+        assertNotEquals(key, key(WORLD_1, 0, BlockFace.NORTH, false, 0, 2));
+        assertNotEquals(key, key(WORLD_1, 0, BlockFace.NORTH, false, 0));
+        assertNotEquals(key, key(WORLD_1, 0, BlockFace.NORTH, false, 1, 0));
+    }
+
+    @Test
+    void getRemembered()
+    {
+        PistonVerdictCache cache = new PistonVerdictCache(() -> now);
+        PistonVerdictCache.Key key = key(WORLD_1, 0, BlockFace.NORTH, false, 0, 1);
+        PistonVerdictCache.Verdict verdict = new PistonVerdictCache.Verdict(false, null, null, 3, PistonMode.CLAIMS_ONLY);
+
+        assertNull(cache.get(key, 3, PistonMode.CLAIMS_ONLY));
+        cache.put(key, verdict);
+
+        assertSame(verdict, cache.get(key, 3, PistonMode.CLAIMS_ONLY));
+        assertSame(verdict, cache.get(key(WORLD_1, 0, BlockFace.NORTH, false, 0, 1), 3, PistonMode.CLAIMS_ONLY));
+        assertNull(cache.get(key(WORLD_1, 0, BlockFace.SOUTH, false, 0, 1), 3, PistonMode.CLAIMS_ONLY));
+    }
+
+    @Test
+    void getExpired()
+    {
+        PistonVerdictCache cache = new PistonVerdictCache(() -> now);
+        PistonVerdictCache.Key key = key(WORLD_1, 0, BlockFace.NORTH, false, 0, 1);
+        PistonVerdictCache.Verdict verdict = new PistonVerdictCache.Verdict(true, null, null, 3, PistonMode.CLAIMS_ONLY);
+        cache.put(key, verdict);
+
+        now += PistonVerdictCache.EXPIRY_MILLIS - 1;
+        assertSame(verdict, cache.get(key, 3, PistonMode.CLAIMS_ONLY));
+
+        now += 1;
+        assertNull(cache.get(key, 3, PistonMode.CLAIMS_ONLY));
+
+        // Remembering the decision again starts a new expiry period.
+        cache.put(key, verdict);
+        assertSame(verdict, cache.get(key, 3, PistonMode.CLAIMS_ONLY));
+    }
+
+    @Test
+    void getInvalidatedByClaimChanges()
+    {
+        PistonVerdictCache cache = new PistonVerdictCache(() -> now);
+        PistonVerdictCache.Key key = key(WORLD_1, 0, BlockFace.NORTH, false, 0, 1);
+        cache.put(key, new PistonVerdictCache.Verdict(false, null, null, 3, PistonMode.CLAIMS_ONLY));
+
+        assertNull(cache.get(key, 4, PistonMode.CLAIMS_ONLY));
+        assertNull(cache.get(key, 3, PistonMode.EVERYWHERE));
+    }
+
+    private static PistonVerdictCache.Key key(UUID worldId, int pistonX, BlockFace direction, boolean isRetract, int... movedX)
+    {
+        World world = mock(World.class);
+        doReturn(worldId).when(world).getUID();
+        Block piston = block(pistonX);
+        doReturn(world).when(piston).getWorld();
+
+        Block[] moved = new Block[movedX.length];
+        for (int i = 0; i < movedX.length; i++)
+        {
+            moved[i] = block(movedX[i] + 1);
+        }
+        return PistonVerdictCache.key(piston, direction, isRetract, List.of(moved));
+    }
+
+    private static Block block(int x)
+    {
+        Block block = mock(Block.class);
+        doReturn(x).when(block).getX();
+        doReturn(64).when(block).getY();
+        doReturn(-20).when(block).getZ();
+        return block;
+    }
+
+}
@@ -0,0 +1,92 @@
+package me.ryanhamshire.GriefPrevention;
+
+import me.ryanhamshire.GriefPrevention.util.BoundingBox;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An in-memory {@link DataStore} for tests. Nothing is read from or written to secondary storage, but writes are
+ * recorded so tests can check them.
+ */
+class TestDataStore extends DataStore
+{
+
+    final List<Claim> storageDeletes = new CopyOnWriteArrayList<>();
+    final Map<UUID, PlayerData> savedPlayerData = new ConcurrentHashMap<>();
+    final Map<UUID, Integer> playerDataSaveCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Create a claim and add it to the data store without saving it.
+     *
+     * @param world the world
+     * @param id the claim ID
+     * @param owner the owner, or {@code null} for an administrative claim
+     * @param parent the parent claim, or {@code null} for a top-level claim
+     * @param minX the lowest X coordinate
+     * @param minZ the lowest Z coordinate
+     * @param maxX the highest X coordinate
+     * @param maxZ the highest Z coordinate
+     * @return the claim
+     */
+    @NotNull Claim addTestClaim(@NotNull World world, long id, @Nullable UUID owner, @Nullable Claim parent, int minX, int minZ, int maxX, int maxZ)
+    {
+        BoundingBox bounds = new BoundingBox(minX, 0, minZ, maxX, 255, maxZ);
+        Claim claim = new Claim(world, bounds, owner, List.of(), List.of(), List.of(), List.of(), false, id);
+        claim.parent = parent;
+        this.addClaim(claim, false);
+        return claim;
+    }
+
+    @Override
+    int getSchemaVersionFromStorage()
+    {
+        return latestSchemaVersion;
+    }
+
+    @Override
+    void updateSchemaVersionInStorage(int versionToSet) {}
+
+    @Override
+    void saveGroupBonusBlocks(String groupName, int amount) {}
+
+    @Override
+    void writeClaimToStorage(Claim claim) {}
+
+    @Override
+    void incrementNextClaimID()
+    {
+        this.nextClaimID++;
+    }
+
+    @Override
+    PlayerData getPlayerDataFromStorage(UUID playerID)
+    {
+        PlayerData playerData = new PlayerData();
+        playerData.playerID = playerID;
+        return playerData;
+    }
+
+    @Override
+    void deleteClaimFromSecondaryStorage(Claim claim)
+    {
+        this.storageDeletes.add(claim);
+    }
+
+    @Override
+    void overrideSavePlayerData(UUID playerID, PlayerData playerData)
+    {
+        this.savedPlayerData.put(playerID, playerData);
+        this.playerDataSaveCounts.merge(playerID, 1, Integer::sum);
+    }
+
+    @Override
+    void close() {}
+
+}
@@ -1,10 +1,14 @@
 package me.ryanhamshire.GriefPrevention;
 
+import me.ryanhamshire.GriefPrevention.util.BoundingBox;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -89,9 +93,152 @@ public class Tests
         assertFalse(finder.hasMatch("?asdfa sdfas df"));
     }
 
+    @Test
+    public void testWordFinderOverlappingWords()
+    {
+        WordFinder finder = new WordFinder(Arrays.asList("alphabet", "bet", "he"));
+        assertTrue(finder.hasMatch("you bet"));
+        assertTrue(finder.hasMatch("the alphabet"));
+        assertFalse(finder.hasMatch("alphabets"));
+        assertFalse(finder.hasMatch("alphabe"));
+        assertTrue(finder.hasMatch("alphabe he"));
+    }
+
+    @Test
+    public void testWordFinderUnicodeCasing()
+    {
+        WordFinder finder = new WordFinder(Collections.singletonList("ÄRGER"));
+        assertTrue(finder.hasMatch("so viel ärger"));
+        //letters outside ASCII are not word characters, same as \w
+        assertTrue(finder.hasMatch("ÿärgerÿ"));
+    }
+
+    @Test
+    public void testWordFinderMatchesRegex()
+    {
+        List<String> words = Arrays.asList("alpha", "Beta", "gam ma", "a.b", "a", "ab", "bab", "x_y", "!!", "ärger", "SS");
+        StringBuilder patternBuilder = new StringBuilder();
+        for (String word : words)
+        {
+            patternBuilder.append("|(([^\\w]|^)").append(Pattern.quote(word)).append("([^\\w]|$))");
+        }
+        Pattern pattern = Pattern.compile(patternBuilder.substring(1), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        WordFinder finder = new WordFinder(words);
+
+        //random messages built from pieces of the words, separators and word characters
+        String[] pieces = { "alpha", "ALPHA", "beta", "gam", " ", "ma", "a", "b", ".", ",", "!", "x", "_", "y", "1", "ä", "Ä", "rger", "s", "ß", "?" };
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++)
+        {
+            StringBuilder message = new StringBuilder();
+            int length = random.nextInt(8);
+            for (int j = 0; j < length; j++)
+            {
+                message.append(pieces[random.nextInt(pieces.length)]);
+            }
+            String input = message.toString();
+            assertEquals(pattern.matcher(input).find(), finder.hasMatch(input), input);
+        }
+    }
+
     private final UUID player1 = UUID.fromString("f13c5a98-3777-4659-a111-5617adb7d7fb");
     private final UUID player2 = UUID.fromString("8667ba71-b85a-4004-af54-457a9734eed7");
 
+    @Test
+    public void testIgnoreIndex()
+    {
+        UUID player3 = UUID.fromString("2b6c8e3a-5d1f-4f0b-9a7e-3c4d5e6f7a8b");
+        IgnoreIndex index = new IgnoreIndex();
+        assertTrue(index.getIgnorers(player1).isEmpty());
+
+        index.add(player2, player1);
+        index.add(player3, player1);
+        assertTrue(index.getIgnorers(player1).contains(player2));
+        assertTrue(index.getIgnorers(player1).contains(player3));
+        assertFalse(index.getIgnorers(player2).contains(player1));
+
+        index.remove(player2, player1);
+        assertFalse(index.getIgnorers(player1).contains(player2));
+
+        index.removeAll(player3, Arrays.asList(player1, player2));
+        assertTrue(index.getIgnorers(player1).isEmpty());
+    }
+
+    @Test
+    public void testSpamDetectorSimilarityMatchesOldImplementation()
+    {
+        //random messages built from letters that change length or meaning when the whole string changes case
+        String[] pieces = { "hello", "HELLO", "Hi", "a", "B", " ", "!", ".", "1", "ß", "SS", "ss", "é", "É", "İ", "ı", "ſ", "ﬀ", "ŉ", "ǰ", "K" };
+        Random random = new Random(48);
+        for (int i = 0; i < 20000; i++)
+        {
+            String message = randomMessage(random, pieces);
+            String lastMessage = randomMessage(random, pieces);
+
+            //caps check
+            assertEquals(oldStringsAreSimilar(message.toUpperCase(), message),
+                    SpamDetector.isMostlyUpperCase(message), message);
+
+            //repeated message check
+            assertEquals(oldStringsAreSimilar(message.toLowerCase(), lastMessage.toLowerCase()),
+                    SpamDetector.isSimilarIgnoringCase(message, lastMessage),
+                    message + " / " + lastMessage);
+        }
+    }
+
+    @Test
+    public void testSpamDetectorCapsExpandingLetters()
+    {
+        //ß becomes SS in upper case, so the message doesn't match its upper case version and isn't treated as caps
+        SpamDetector detector = new SpamDetector();
+        assertEquals("STRAßE!", detector.AnalyzeMessage(player1, "STRAßE!", 1000).finalMessage);
+        assertEquals("hello there!", detector.AnalyzeMessage(player2, "HELLO THERE!", 100000).finalMessage);
+    }
+
+    private static String randomMessage(Random random, String[] pieces)
+    {
+        StringBuilder message = new StringBuilder();
+        int length = random.nextInt(12);
+        for (int i = 0; i < length; i++)
+        {
+            message.append(pieces[random.nextInt(pieces.length)]);
+        }
+        return message.toString();
+    }
+
+    //SpamDetector.stringsAreSimilar before it compared messages in place
+    private static boolean oldStringsAreSimilar(String message, String lastMessage)
+    {
+        message = message.replaceAll("[^\\p{Alpha}]", "");
+        lastMessage = lastMessage.replaceAll("[^\\p{Alpha}]", "");
+
+        String shorterString, longerString;
+        if (lastMessage.length() < message.length())
+        {
+            shorterString = lastMessage;
+            longerString = message;
+        }
+        else
+        {
+            shorterString = message;
+            longerString = lastMessage;
+        }
+
+        if (shorterString.length() <= 5) return shorterString.equals(longerString);
+
+        int maxIdenticalCharacters = longerString.length() - longerString.length() / 4;
+        if (shorterString.length() < maxIdenticalCharacters) return false;
+
+        int identicalCount = 0;
+        for (int i = 0; i < shorterString.length(); i++)
+        {
+            if (shorterString.charAt(i) == longerString.charAt(i)) identicalCount++;
+            if (identicalCount > maxIdenticalCharacters) return true;
+        }
+
+        return false;
+    }
+
     @Test
     public void testSpamDetectorBasicChatOK()
     {
@@ -292,4 +439,70 @@ public class Tests
         assertTrue(result.shouldWarnChatter);
         assertFalse(result.shouldBanChatter);
     }
+
+    @Test
+    public void testUnclaimedRadiusInsideClaim()
+    {
+        BoundingBox claim = new BoundingBox(0, 0, 0, 9, 255, 9);
+        assertEquals(-1, DataStore.getUnclaimedRadius(claim, 5, 5));
+
+        //the chest column itself on the claim's edges and corners
+        assertEquals(-1, DataStore.getUnclaimedRadius(claim, 0, 5));
+        assertEquals(-1, DataStore.getUnclaimedRadius(claim, 9, 5));
+        assertEquals(-1, DataStore.getUnclaimedRadius(claim, 5, 0));
+        assertEquals(-1, DataStore.getUnclaimedRadius(claim, 9, 9));
+    }
+
+    @Test
+    public void testUnclaimedRadiusTouchingClaim()
+    {
+        BoundingBox claim = new BoundingBox(0, 0, 0, 9, 255, 9);
+
+        //right next to the claim, only the chest column itself is unclaimed
+        assertEquals(0, DataStore.getUnclaimedRadius(claim, 10, 5));
+        assertEquals(0, DataStore.getUnclaimedRadius(claim, -1, 5));
+        assertEquals(0, DataStore.getUnclaimedRadius(claim, 5, 10));
+        assertEquals(0, DataStore.getUnclaimedRadius(claim, 10, 10));
+    }
+
+    @Test
+    public void testUnclaimedRadiusOffsetOnOneAxis()
+    {
+        BoundingBox claim = new BoundingBox(0, 0, 0, 9, 255, 9);
+
+        //level with the claim on z, so only the x distance matters
+        assertEquals(4, DataStore.getUnclaimedRadius(claim, 14, 5));
+        assertEquals(4, DataStore.getUnclaimedRadius(claim, -5, 5));
+
+        //level with the claim on x, so only the z distance matters
+        assertEquals(4, DataStore.getUnclaimedRadius(claim, 5, 14));
+        assertEquals(4, DataStore.getUnclaimedRadius(claim, 5, -5));
+
+        //offset on both axes, the square only overlaps once it reaches the claim on both
+        assertEquals(19, DataStore.getUnclaimedRadius(claim, 14, 29));
+        assertEquals(19, DataStore.getUnclaimedRadius(claim, 29, 14));
+    }
+
+    @Test
+    public void testUnclaimedRadiusMatchesShrinkingSquares()
+    {
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++)
+        {
+            int minX = random.nextInt(-20, 20);
+            int minZ = random.nextInt(-20, 20);
+            BoundingBox claim = new BoundingBox(minX, 0, minZ, minX + random.nextInt(10), 255, minZ + random.nextInt(10));
+            int x = random.nextInt(-40, 40);
+            int z = random.nextInt(-40, 40);
+
+            //the largest square that doesn't overlap, found by trying squares of decreasing size
+            int expected = 50;
+            while (expected >= 0 && claim.intersects(new BoundingBox(x - expected, 0, z - expected, x + expected, 255, z + expected)))
+            {
+                expected--;
+            }
+
+            assertEquals(expected, Math.min(50, DataStore.getUnclaimedRadius(claim, x, z)));
+        }
+    }
 }
\ No newline at end of file